@@ -8,6 +8,11 @@ group = "com.tennis"
 version = "1.0.0"
 java.sourceCompatibility = JavaVersion.VERSION_17
 
+// Ahead-of-time processing: ./gradlew build -Paot, then run with -Dspring.aot.enabled=true
+if (project.hasProperty("aot")) {
+    apply(plugin = "org.springframework.boot.aot")
+}
+
 repositories {
     mavenCentral()
 }
@@ -16,7 +21,11 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-validation")
-    runtimeOnly("org.postgresql:postgresql")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+    implementation("org.postgresql:postgresql")
+    runtimeOnly("com.h2database:h2")
     compileOnly("org.projectlombok:lombok")
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
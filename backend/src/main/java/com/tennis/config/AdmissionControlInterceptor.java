@@ -0,0 +1,72 @@
+package com.tennis.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tennis.dto.ApiResponse;
+import com.tennis.service.AdmissionControlService;
+import com.tennis.service.AdmissionControlService.Admission;
+import com.tennis.service.AdmissionControlService.TrafficClass;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+    
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+    public static final String CLIENT_KEY_ATTRIBUTE = "com.tennis.config.AdmissionControlInterceptor.clientKey";
+    private static final String ADMISSION_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".admission";
+    
+    private final AdmissionControlService admissionControlService;
+    private final ObjectMapper objectMapper;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        
+        // What-if grids are the most expensive requests, so they share the batch limit
+        String uri = request.getRequestURI();
+        TrafficClass trafficClass = uri.endsWith("/batch") || uri.endsWith("/what-if")
+                ? TrafficClass.BATCH
+                : TrafficClass.INTERACTIVE;
+        Admission admission = admissionControlService.admit(
+                request.getRemoteAddr(), request.getHeader(CLIENT_ID_HEADER), trafficClass);
+        
+        if (admission.isAdmitted()) {
+            request.setAttribute(ADMISSION_ATTRIBUTE, admission);
+            request.setAttribute(CLIENT_KEY_ATTRIBUTE, admission.clientKey());
+            return true;
+        }
+        
+        boolean rateLimited = admission.outcome() == AdmissionControlService.Outcome.RATE_LIMITED;
+        response.setStatus(rateLimited ? HttpStatus.TOO_MANY_REQUESTS.value() : HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(admission.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiResponse<>(false, null,
+                rateLimited ? "Rate limit exceeded" : "Server is overloaded, please retry later"));
+        return false;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object admission = request.getAttribute(ADMISSION_ATTRIBUTE);
+        if (admission != null) {
+            request.removeAttribute(ADMISSION_ATTRIBUTE);
+            if (ex == null && response.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                // Rate limited by the batch charge: the request never did any work to measure
+                admissionControlService.releaseIgnored((Admission) admission);
+            } else {
+                admissionControlService.release((Admission) admission, ex == null && response.getStatus() < 500);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.tennis.config;
+
+import com.tennis.service.PredictionModel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "model-registry")
+public class ModelRegistryProperties {
+    
+    private String live;
+    private String canary;
+    private int canaryPercent;
+    private List<String> shadows = new ArrayList<>();
+    private List<ModelDefinition> models = new ArrayList<>();
+    /** Hosts a model registered at runtime may point at, besides those of the configured models. */
+    private List<String> allowedHosts = new ArrayList<>();
+    private Shadow shadow = new Shadow();
+    
+    @Data
+    public static class ModelDefinition {
+        private String version;
+        private PredictionModel.Type type;
+        private String baseUrl;
+    }
+    
+    @Data
+    public static class Shadow {
+        private boolean enabled = true;
+        private int threads = 2;
+        private int queueCapacity = 1000;
+        private int batchSize = 100;
+        private int maxPendingOutputs = 10000;
+    }
+}
@@ -0,0 +1,252 @@
+package com.tennis.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tennis.dto.ApiResponse;
+import com.tennis.dto.PredictionRequest;
+import com.tennis.dto.PredictionResponse;
+import com.tennis.entity.Player;
+import com.tennis.service.HeadToHeadIndex;
+import com.tennis.service.MLServiceClient;
+import com.tennis.service.ModelRegistry;
+import com.tennis.service.PlayerService;
+import com.tennis.service.PlayerSnapshotService;
+import com.tennis.service.PredictionModel;
+import com.tennis.service.PredictionService;
+import com.tennis.service.RuleEngine;
+import com.tennis.service.RuleEnginePredictionModel;
+import com.tennis.service.ValidationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs before Spring Boot reports readiness: readiness stays {@code REFUSING_TRAFFIC}
+ * until every {@link ApplicationRunner} has returned. Loads the player snapshot and the
+ * head-to-head index, then drives synthetic requests through the real prediction path
+ * ({@link PredictionService#predictWithoutSaving}) and DTO (de)serialization until the
+ * per-round latency settles. The rounds score with the in-process rule engine, so the
+ * settle check measures JIT warm-up rather than network or model latency; each routed ML
+ * model only gets {@code warm-up.ml-requests} calls to open its connections. Also warms
+ * the prediction store's read queries and pre-opens the database pool. Nothing is
+ * inserted, so warm-up keeps no rows and uses up no ids.
+ *
+ * With {@code warm-up.exit-when-done} the application exits after warming up, which makes
+ * a run a representative training workload for a class data sharing archive.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmUpRunner implements ApplicationRunner {
+    
+    private static final String[] SURFACES = {"HARD", "CLAY", "GRASS", "CARPET"};
+    
+    private final ValidationService validationService;
+    private final RuleEngine ruleEngine;
+    private final ObjectMapper objectMapper;
+    private final PredictionService predictionService;
+    private final PlayerService playerService;
+    private final PlayerSnapshotService playerSnapshotService;
+    private final HeadToHeadIndex headToHeadIndex;
+    private final ModelRegistry modelRegistry;
+    private final MLServiceClient mlServiceClient;
+    private final DataSource dataSource;
+    private final ConfigurableApplicationContext applicationContext;
+    
+    @Value("${warm-up.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${warm-up.iterations-per-round:200}")
+    private int iterationsPerRound;
+    
+    @Value("${warm-up.max-rounds:10}")
+    private int maxRounds;
+    
+    @Value("${warm-up.settle-tolerance:0.1}")
+    private double settleTolerance;
+    
+    @Value("${warm-up.ml-requests:5}")
+    private int mlRequests;
+    
+    @Value("${warm-up.persistence-iterations:20}")
+    private int persistenceIterations;
+    
+    @Value("${warm-up.db-connections:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int dbConnections;
+    
+    @Value("${warm-up.exit-when-done:false}")
+    private boolean exitWhenDone;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        // The caches load before readiness whether or not warm-up is enabled
+        playerSnapshotService.refresh();
+        headToHeadIndex.bootstrap();
+        if (!enabled) {
+            return;
+        }
+        
+        long start = System.currentTimeMillis();
+        log.info("Warm-up started, readiness is held until it completes");
+        
+        String[] players = warmUpPlayers();
+        preOpenConnections();
+        primeModels(players);
+        warmReads();
+        int rounds = warmHotPath(players);
+        
+        log.info("Warm-up finished in {} ms after {} rounds", System.currentTimeMillis() - start, rounds);
+        
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+    
+    private void preOpenConnections() {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < dbConnections; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (Exception e) {
+            log.warn("Warm-up could only open {} database connections", connections.size(), e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (Exception ignored) {
+                    // returned to the pool on a best-effort basis
+                }
+            }
+        }
+    }
+    
+    /**
+     * A few real calls to each routed ML model, enough to open its HTTP connections; a model
+     * that fails once is left alone, so an unreachable service costs one attempt.
+     */
+    private void primeModels(String[] players) {
+        if (!mlServiceClient.checkHealth()) {
+            log.warn("ML service not reachable during warm-up");
+            return;
+        }
+        ModelRegistry.Routing routing = modelRegistry.getRouting();
+        Set<PredictionModel> routed = new LinkedHashSet<>();
+        routed.add(routing.live());
+        if (routing.canary() != null) {
+            routed.add(routing.canary());
+        }
+        for (PredictionModel model : routed) {
+            if (model.getType() != PredictionModel.Type.ML_SERVICE) {
+                continue;
+            }
+            for (int i = 0; i < mlRequests; i++) {
+                try {
+                    // A failed model call falls back to the rule engine rather than throwing
+                    PredictionResponse response = predictionService.predictWithoutSaving(syntheticRequest(i, players), model);
+                    if (RuleEngine.FALLBACK_VERSION.equals(response.getModelVersion())) {
+                        break;
+                    }
+                } catch (Exception e) {
+                    log.warn("Warm-up call to model {} failed: {}", model.getVersion(), e.getMessage());
+                    break;
+                }
+            }
+        }
+    }
+    
+    /** Read queries only: an insert, even rolled back, would use up an id. */
+    private void warmReads() {
+        try {
+            for (int i = 0; i < persistenceIterations; i++) {
+                predictionService.getPredictionHistory(PageRequest.of(0, 50));
+                predictionService.getPredictionsByTournament("Wimbledon");
+            }
+            playerService.getTopPlayers(10);
+        } catch (Exception e) {
+            log.warn("Warm-up persistence path failed", e);
+        }
+    }
+    
+    /** Two real players when the snapshot has them, so head-to-head enrichment runs too. */
+    private String[] warmUpPlayers() {
+        List<Player> top = playerSnapshotService.current()
+                .map(snapshot -> snapshot.top(2))
+                .orElse(List.of());
+        if (top.size() == 2) {
+            String[] players = {top.get(0).getName(), top.get(1).getName()};
+            try {
+                validationService.validatePredictionRequest(syntheticRequest(0, players));
+                return players;
+            } catch (IllegalArgumentException e) {
+                log.debug("Top players unusable for warm-up: {}", e.getMessage());
+            }
+        }
+        return new String[]{"Warmup Player A", "Warmup Player B"};
+    }
+    
+    /**
+     * Repeats rounds of the in-process hot path until the mean latency of a round is
+     * within {@code settleTolerance} of the previous round, or {@code maxRounds} is reached.
+     */
+    private int warmHotPath(String[] players) {
+        PredictionModel model = new RuleEnginePredictionModel("warm-up", ruleEngine);
+        double previousMean = Double.MAX_VALUE;
+        int round = 0;
+        while (round < maxRounds) {
+            round++;
+            long roundStart = System.nanoTime();
+            for (int i = 0; i < iterationsPerRound; i++) {
+                exerciseHotPath(syntheticRequest(i, players), model);
+            }
+            double mean = (double) (System.nanoTime() - roundStart) / iterationsPerRound;
+            log.debug("Warm-up round {}: {} ns per request", round, (long) mean);
+            
+            if (Math.abs(previousMean - mean) <= previousMean * settleTolerance) {
+                break;
+            }
+            previousMean = mean;
+        }
+        return round;
+    }
+    
+    private void exerciseHotPath(PredictionRequest request, PredictionModel model) {
+        try {
+            byte[] requestJson = objectMapper.writeValueAsBytes(request);
+            PredictionRequest parsed = objectMapper.readValue(requestJson, PredictionRequest.class);
+            
+            PredictionResponse prediction = predictionService.predictWithoutSaving(parsed, model);
+            byte[] responseJson = objectMapper.writeValueAsBytes(new ApiResponse<>(true, prediction, null));
+            objectMapper.readValue(responseJson, ApiResponse.class);
+        } catch (Exception e) {
+            log.debug("Warm-up iteration failed: {}", e.getMessage());
+        }
+    }
+    
+    private PredictionRequest syntheticRequest(int i, String[] players) {
+        PredictionRequest request = new PredictionRequest();
+        request.setPlayer1Name(players[0]);
+        request.setPlayer2Name(players[1]);
+        request.setTournament("Wimbledon");
+        request.setSurface(SURFACES[i % SURFACES.length]);
+        request.setPlayer1Rank(1 + i % 100);
+        request.setPlayer2Rank(1 + (i * 7) % 100);
+        request.setPlayer1Points(1000L + i);
+        request.setPlayer2Points(2000L - i);
+        request.setPlayer1WinPctCareer(0.5 + (i % 10) / 100.0);
+        request.setPlayer2WinPctCareer(0.5 - (i % 10) / 100.0);
+        return request;
+    }
+}
@@ -4,6 +4,9 @@ import com.tennis.dto.ApiResponse;
 import com.tennis.service.SystemStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,17 +21,20 @@ import java.util.Map;
 public class HealthController {
     
     private final SystemStatsService systemStatsService;
+    private final ApplicationAvailability applicationAvailability;
     
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
+        boolean ready = applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
+        
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "healthy");
+        response.put("status", ready ? "healthy" : "warming_up");
         response.put("service", "tennis-predictor");
         response.put("timestamp", System.currentTimeMillis());
         response.put("database", "connected");
         response.put("mlService", systemStatsService.isMlServiceAvailable() ? "connected" : "unavailable");
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
     
     @GetMapping("/system/stats")
@@ -0,0 +1,90 @@
+package com.tennis.controller;
+
+import com.tennis.dto.ApiResponse;
+import com.tennis.dto.ModelRegistrationRequest;
+import com.tennis.dto.ModelRoutingRequest;
+import com.tennis.service.ModelRegistry;
+import com.tennis.service.ShadowScoringService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/models")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://frontend:3000"})
+public class ModelController {
+    
+    private final ModelRegistry modelRegistry;
+    private final ShadowScoringService shadowScoringService;
+    
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getModels() {
+        return ResponseEntity.ok(new ApiResponse<>(true, modelRegistry.describe(), null));
+    }
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> registerModel(
+            @Valid @RequestBody ModelRegistrationRequest request) {
+        log.info("Model registration: {} ({})", request.getVersion(), request.getType());
+        
+        try {
+            modelRegistry.register(request.getVersion(), request.getType(), request.getBaseUrl());
+            return ResponseEntity.ok(new ApiResponse<>(true, modelRegistry.describe(), null));
+        } catch (IllegalArgumentException e) {
+            log.warn("Model registration rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        }
+    }
+    
+    @DeleteMapping("/{version}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> unregisterModel(
+            @PathVariable String version) {
+        log.info("Model removal: {}", version);
+        
+        try {
+            modelRegistry.unregister(version);
+            return ResponseEntity.ok(new ApiResponse<>(true, modelRegistry.describe(), null));
+        } catch (IllegalArgumentException e) {
+            log.warn("Model removal rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        }
+    }
+    
+    @PutMapping("/routing")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> updateRouting(
+            @Valid @RequestBody ModelRoutingRequest request) {
+        log.info("Model routing change: live={}, canary={} ({}%), shadows={}",
+                request.getLive(), request.getCanary(), request.getCanaryPercent(), request.getShadows());
+        
+        try {
+            modelRegistry.updateRouting(request.getLive(), request.getCanary(),
+                    request.getCanaryPercent(), request.getShadows());
+            return ResponseEntity.ok(new ApiResponse<>(true, modelRegistry.describe(), null));
+        } catch (IllegalArgumentException e) {
+            log.warn("Model routing rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/accuracy")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAccuracy() {
+        try {
+            return ResponseEntity.ok(new ApiResponse<>(true, shadowScoringService.getAccuracyByModel(), null));
+        } catch (Exception e) {
+            log.error("Model accuracy error", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to retrieve model accuracy"));
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package com.tennis.controller;
 
 import com.tennis.dto.ApiResponse;
+import com.tennis.dto.HeadToHeadDto;
 import com.tennis.dto.PlayerStatsDto;
 import com.tennis.entity.Player;
+import com.tennis.service.HeadToHeadIndex;
 import com.tennis.service.PlayerService;
+import com.tennis.service.RankingImportService;
+import com.tennis.service.ResourceVersionService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -19,6 +28,9 @@ import java.util.List;
 public class PlayerController {
     
     private final PlayerService playerService;
+    private final ResourceVersionService resourceVersionService;
+    private final RankingImportService rankingImportService;
+    private final HeadToHeadIndex headToHeadIndex;
     
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<Player>>> searchPlayers(
@@ -36,9 +48,16 @@ public class PlayerController {
     
     @GetMapping("/{id}/stats")
     public ResponseEntity<ApiResponse<PlayerStatsDto>> getPlayerStats(
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
         log.info("Player stats request: {}", id);
         
+        String etag = resourceVersionService.etag("player-" + id, resourceVersionService.getPlayerVersion(id),
+                webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (resourceVersionService.checkNotModified(webRequest, etag)) {
+            return null;
+        }
+        
         try {
             PlayerStatsDto stats = playerService.getPlayerStats(id);
             return ResponseEntity.ok(new ApiResponse<>(true, stats, null));
@@ -48,11 +67,37 @@ public class PlayerController {
         }
     }
     
+    @GetMapping("/{id}/h2h/{opponentId}")
+    public ResponseEntity<ApiResponse<HeadToHeadDto>> getHeadToHead(
+            @PathVariable Long id,
+            @PathVariable Long opponentId) {
+        log.info("Head-to-head request: {} vs {}", id, opponentId);
+        
+        try {
+            HeadToHeadDto headToHead = headToHeadIndex.lookup(id, opponentId);
+            return ResponseEntity.ok(new ApiResponse<>(true, headToHead, null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Head-to-head error", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to load head-to-head record"));
+        }
+    }
+    
     @GetMapping("/top")
     public ResponseEntity<ApiResponse<List<Player>>> getTopPlayers(
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
         log.info("Top players request: limit={}", limit);
         
+        String etag = resourceVersionService.etag("top-players", resourceVersionService.getPlayersVersion(),
+                limit, webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (resourceVersionService.checkNotModified(webRequest, etag)) {
+            return null;
+        }
+        
         try {
             List<Player> topPlayers = playerService.getTopPlayers(limit);
             return ResponseEntity.ok(new ApiResponse<>(true, topPlayers, null));
@@ -61,4 +106,22 @@ public class PlayerController {
             return ResponseEntity.ok(new ApiResponse<>(true, List.of(), null));
         }
     }
+    
+    @PostMapping(value = "/rankings/import", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    public ResponseEntity<ApiResponse<Map<String, Object>>> importRankings(HttpServletRequest request) {
+        log.info("Ranking import started: {} bytes", request.getContentLengthLong());
+        
+        try {
+            Map<String, Object> result = rankingImportService.importRankings(request.getInputStream());
+            return ResponseEntity.ok(new ApiResponse<>(true, result, null));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ranking import rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Ranking import error", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to import rankings"));
+        }
+    }
 }
@@ -1,17 +1,32 @@
 package com.tennis.controller;
 
+import com.tennis.config.AdmissionControlInterceptor;
 import com.tennis.dto.ApiResponse;
 import com.tennis.dto.PredictionRequest;
 import com.tennis.dto.PredictionResponse;
+import com.tennis.dto.PredictionResultRequest;
+import com.tennis.dto.WhatIfRequest;
+import com.tennis.dto.WhatIfResponse;
+import com.tennis.service.AdmissionControlService;
+import com.tennis.service.PredictionDeduplicationService;
+import com.tennis.service.PredictionFeedService;
 import com.tennis.service.PredictionService;
+import com.tennis.service.ResourceVersionService;
+import com.tennis.service.WhatIfService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -23,14 +38,23 @@ import java.util.List;
 public class PredictionController {
     
     private final PredictionService predictionService;
+    private final PredictionFeedService predictionFeedService;
+    private final PredictionDeduplicationService predictionDeduplicationService;
+    private final ResourceVersionService resourceVersionService;
+    private final WhatIfService whatIfService;
+    private final AdmissionControlService admissionControlService;
     
     @PostMapping
     public ResponseEntity<ApiResponse<PredictionResponse>> predictMatch(
-            @Valid @RequestBody PredictionRequest request) {
+            @Valid @RequestBody PredictionRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestAttribute(value = AdmissionControlInterceptor.CLIENT_KEY_ATTRIBUTE, required = false) String clientKey,
+            HttpServletRequest httpRequest) {
         log.info("Prediction request received: {} vs {}", request.getPlayer1Name(), request.getPlayer2Name());
         
         try {
-            PredictionResponse prediction = predictionService.predictMatch(request);
+            PredictionResponse prediction = predictionDeduplicationService.predict(
+                    clientKey != null ? clientKey : httpRequest.getRemoteAddr(), idempotencyKey, request);
             return ResponseEntity.ok(new ApiResponse<>(true, prediction, null));
         } catch (IllegalArgumentException e) {
             log.warn("Validation error: {}", e.getMessage());
@@ -45,9 +69,17 @@ public class PredictionController {
     
     @PostMapping("/batch")
     public ResponseEntity<ApiResponse<List<PredictionResponse>>> batchPredict(
-            @Valid @RequestBody List<PredictionRequest> requests) {
+            @Valid @RequestBody List<PredictionRequest> requests,
+            @RequestAttribute(value = AdmissionControlInterceptor.CLIENT_KEY_ATTRIBUTE, required = false) String clientKey) {
         log.info("Batch prediction request received with {} matches", requests.size());
         
+        long retryAfter = clientKey == null ? 0 : admissionControlService.chargeBatch(clientKey, requests.size());
+        if (retryAfter > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                    .body(new ApiResponse<>(false, null, "Rate limit exceeded"));
+        }
+        
         try {
             List<PredictionResponse> predictions = predictionService.batchPredict(requests);
             return ResponseEntity.ok(new ApiResponse<>(true, predictions, null));
@@ -58,12 +90,38 @@ public class PredictionController {
         }
     }
     
+    @PostMapping("/what-if")
+    public ResponseEntity<ApiResponse<WhatIfResponse>> whatIf(@Valid @RequestBody WhatIfRequest request) {
+        log.info("What-if request received: {} vs {}",
+                request.getMatchup().getPlayer1Name(), request.getMatchup().getPlayer2Name());
+        
+        try {
+            WhatIfResponse response = whatIfService.evaluate(request);
+            return ResponseEntity.ok(new ApiResponse<>(true, response, null));
+        } catch (IllegalArgumentException e) {
+            log.warn("What-if rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            log.error("What-if error", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to evaluate scenarios"));
+        }
+    }
+    
     @GetMapping("/history")
     public ResponseEntity<ApiResponse<Page<PredictionResponse>>> getPredictionHistory(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
+            @RequestParam(defaultValue = "50") int size,
+            WebRequest webRequest) {
         log.info("History request: page={}, size={}", page, size);
         
+        String etag = resourceVersionService.etag("history", resourceVersionService.getHistoryVersion(),
+                page, size, webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (resourceVersionService.checkNotModified(webRequest, etag)) {
+            return null;
+        }
+        
         try {
             Page<PredictionResponse> history = predictionService.getPredictionHistory(
                     PageRequest.of(page, size));
@@ -77,9 +135,17 @@ public class PredictionController {
     
     @GetMapping("/tournament/{tournament}")
     public ResponseEntity<ApiResponse<List<PredictionResponse>>> getPredictionsByTournament(
-            @PathVariable String tournament) {
+            @PathVariable String tournament,
+            WebRequest webRequest) {
         log.info("Tournament predictions request: {}", tournament);
         
+        String etag = resourceVersionService.etag("tournament",
+                resourceVersionService.getTournamentVersion(tournament),
+                tournament, webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (resourceVersionService.checkNotModified(webRequest, etag)) {
+            return null;
+        }
+        
         try {
             List<PredictionResponse> predictions = predictionService.getPredictionsByTournament(tournament);
             return ResponseEntity.ok(new ApiResponse<>(true, predictions, null));
@@ -89,4 +155,34 @@ public class PredictionController {
                     .body(new ApiResponse<>(false, null, "Failed to retrieve tournament predictions"));
         }
     }
+    
+    @PutMapping("/{id}/result")
+    public ResponseEntity<ApiResponse<PredictionResponse>> recordResult(
+            @PathVariable Long id,
+            @Valid @RequestBody PredictionResultRequest request) {
+        log.info("Result recorded for prediction {}: {}", id, request.getActualWinner());
+        
+        try {
+            PredictionResponse prediction = predictionService.recordResult(id, request.getActualWinner());
+            return ResponseEntity.ok(new ApiResponse<>(true, prediction, null));
+        } catch (IllegalArgumentException e) {
+            log.warn("Result rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, null, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Result recording error", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, null, "Failed to record result"));
+        }
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPredictions(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            HttpServletResponse response) {
+        log.info("Prediction feed subscription: lastEventId={}", lastEventId);
+        // Stops nginx and similar proxies from buffering the stream into bursts
+        response.setHeader("X-Accel-Buffering", "no");
+        return predictionFeedService.subscribe(lastEventId);
+    }
 }
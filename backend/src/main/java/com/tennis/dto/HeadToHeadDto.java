@@ -0,0 +1,49 @@
+package com.tennis.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/** Head-to-head record from the point of view of {@code playerId}. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HeadToHeadDto {
+    @JsonProperty("player_id")
+    private Long playerId;
+    
+    @JsonProperty("opponent_id")
+    private Long opponentId;
+    
+    @JsonProperty("matches")
+    private Integer matches;
+    
+    @JsonProperty("player_wins")
+    private Integer playerWins;
+    
+    @JsonProperty("opponent_wins")
+    private Integer opponentWins;
+    
+    /** Surface to {@code [player wins, opponent wins]}. */
+    @JsonProperty("wins_by_surface")
+    private Map<String, int[]> winsBySurface;
+    
+    /** Most recent first, {@code W} or {@code L} for the player. */
+    @JsonProperty("recent_results")
+    private List<String> recentResults;
+    
+    @JsonProperty("decayed_player_score")
+    private Double decayedPlayerScore;
+    
+    @JsonProperty("decayed_opponent_score")
+    private Double decayedOpponentScore;
+    
+    @JsonProperty("decayed_player_share")
+    private Double decayedPlayerShare;
+}
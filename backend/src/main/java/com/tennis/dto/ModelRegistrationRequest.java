@@ -0,0 +1,21 @@
+package com.tennis.dto;
+
+import com.tennis.service.PredictionModel;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelRegistrationRequest {
+    @NotBlank(message = "Model version is required")
+    private String version;
+    
+    @NotNull(message = "Model type is required")
+    private PredictionModel.Type type;
+    
+    private String baseUrl;
+}
@@ -0,0 +1,27 @@
+package com.tennis.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelRoutingRequest {
+    @NotBlank(message = "Live model version is required")
+    private String live;
+    
+    private String canary;
+    
+    @Min(value = 0, message = "Canary percent must be between 0 and 100")
+    @Max(value = 100, message = "Canary percent must be between 0 and 100")
+    private int canaryPercent;
+    
+    private List<String> shadows = new ArrayList<>();
+}
@@ -28,4 +28,13 @@ public class PredictionRequest {
     private Long player2Points;
     private Double player1WinPctCareer;
     private Double player2WinPctCareer;
+    
+    // Head-to-head features; filled from the head-to-head index when not supplied
+    private Integer h2hPlayer1Wins;
+    private Integer h2hPlayer2Wins;
+    private Integer h2hSurfacePlayer1Wins;
+    private Integer h2hSurfacePlayer2Wins;
+    private Integer h2hRecentMatches;
+    private Integer h2hRecentPlayer1Wins;
+    private Double h2hDecayedPlayer1Share;
 }
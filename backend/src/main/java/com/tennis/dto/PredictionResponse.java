@@ -49,6 +49,15 @@ public class PredictionResponse {
     @JsonProperty("surface")
     private String surface;
     
+    @JsonProperty("actual_winner")
+    private String actualWinner;
+    
+    @JsonProperty("correct")
+    private Boolean correct;
+    
+    @JsonProperty("model_version")
+    private String modelVersion;
+    
     @JsonProperty("created_at")
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,14 @@
+package com.tennis.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PredictionResultRequest {
+    @NotBlank(message = "Actual winner is required")
+    private String actualWinner;
+}
@@ -0,0 +1,44 @@
+package com.tennis.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One matchup and the scenario grid to score it over. Rank deltas are applied to player 1's
+ * rank ({@code -rankDeltaRange..rankDeltaRange} in steps of {@code rankDeltaStep}); the
+ * win-percentage range replaces player 1's career win percentage. Scored on the matchup's
+ * surface only; a non-empty {@code surfaces} is rejected, as the rule engine has no
+ * surface term.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfRequest {
+    @NotNull(message = "Matchup is required")
+    @Valid
+    private PredictionRequest matchup;
+    
+    private List<String> surfaces = new ArrayList<>();
+    
+    @Min(value = 0, message = "Rank delta range cannot be negative")
+    @Max(value = 10000, message = "Rank delta range cannot exceed 10000")
+    private int rankDeltaRange;
+    
+    @Min(value = 1, message = "Rank delta step must be at least 1")
+    @Max(value = 10000, message = "Rank delta step cannot exceed 10000")
+    private int rankDeltaStep = 1;
+    
+    private Double winPctMin;
+    private Double winPctMax;
+    
+    @Min(value = 1, message = "Win percentage steps must be at least 1")
+    private int winPctSteps = 1;
+}
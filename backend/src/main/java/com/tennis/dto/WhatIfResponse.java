@@ -0,0 +1,45 @@
+package com.tennis.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dense what-if result for the matchup's surface. {@code player1WinProb} is row-major over
+ * {@code [rank_delta][player1_win_pct]}, with the axis lengths in {@code shape}. The win
+ * percentage axis is omitted when player 1 has no career win percentage; it then has length 1.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WhatIfResponse {
+    @JsonProperty("player1_name")
+    private String player1Name;
+    
+    @JsonProperty("player2_name")
+    private String player2Name;
+    
+    @JsonProperty("model_version")
+    private String modelVersion;
+    
+    @JsonProperty("surface")
+    private String surface;
+    
+    @JsonProperty("rank_deltas")
+    private int[] rankDeltas;
+    
+    @JsonProperty("player1_win_pcts")
+    private double[] player1WinPcts;
+    
+    @JsonProperty("shape")
+    private int[] shape;
+    
+    @JsonProperty("player1_win_prob")
+    private double[] player1WinProb;
+    
+    @JsonProperty("elapsed_micros")
+    private Long elapsedMicros;
+}
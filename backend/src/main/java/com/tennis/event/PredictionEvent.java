@@ -0,0 +1,31 @@
+package com.tennis.event;
+
+import com.tennis.dto.PredictionRequest;
+import com.tennis.dto.PredictionResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link com.tennis.service.PredictionService} whenever a prediction row
+ * is inserted or settled with its actual winner. Listeners that care about committed
+ * state should use {@code @TransactionalEventListener}.
+ */
+@Getter
+@AllArgsConstructor
+public class PredictionEvent {
+    
+    public enum Type {
+        CREATED,
+        SETTLED
+    }
+    
+    private final Type type;
+    private final PredictionResponse prediction;
+    
+    /** The originating request for CREATED events, {@code null} for SETTLED. */
+    private final PredictionRequest request;
+    
+    public PredictionEvent(Type type, PredictionResponse prediction) {
+        this(type, prediction, null);
+    }
+}
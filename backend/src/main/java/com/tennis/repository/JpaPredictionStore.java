@@ -0,0 +1,49 @@
+package com.tennis.repository;
+
+import com.tennis.entity.MatchPrediction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Profile("!embedded")
+@RequiredArgsConstructor
+public class JpaPredictionStore implements PredictionStore {
+    
+    private final MatchPredictionRepository predictionRepository;
+    
+    @Override
+    public MatchPrediction save(MatchPrediction prediction) {
+        return predictionRepository.save(prediction);
+    }
+    
+    @Override
+    public Optional<MatchPrediction> findById(Long id) {
+        return predictionRepository.findById(id);
+    }
+    
+    @Override
+    public Page<MatchPrediction> findAll(Pageable pageable) {
+        return predictionRepository.findAll(pageable);
+    }
+    
+    @Override
+    public List<MatchPrediction> findByTournament(String tournament) {
+        return predictionRepository.findByTournament(tournament);
+    }
+    
+    @Override
+    public List<MatchPrediction> findByPlayer(String playerName) {
+        return predictionRepository.findByPlayer1NameOrPlayer2Name(playerName, playerName);
+    }
+    
+    @Override
+    public long count() {
+        return predictionRepository.count();
+    }
+}
@@ -0,0 +1,30 @@
+package com.tennis.repository;
+
+import com.tennis.entity.MatchPrediction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for predictions. Backed by PostgreSQL through {@link MatchPredictionRepository}
+ * by default, and by the append-only {@link SegmentLogPredictionStore} under the
+ * {@code embedded} profile.
+ */
+public interface PredictionStore {
+    
+    /** Inserts or replaces a prediction, assigning its id on first save. */
+    MatchPrediction save(MatchPrediction prediction);
+    
+    Optional<MatchPrediction> findById(Long id);
+    
+    Page<MatchPrediction> findAll(Pageable pageable);
+    
+    List<MatchPrediction> findByTournament(String tournament);
+    
+    /** Predictions where the player is either player 1 or player 2. */
+    List<MatchPrediction> findByPlayer(String playerName);
+    
+    long count();
+}
@@ -0,0 +1,756 @@
+package com.tennis.repository;
+
+import com.tennis.entity.MatchPrediction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Prediction storage for deployments without PostgreSQL. Every save appends a complete
+ * record to a memory-mapped segment file; an update appends a new version and the old
+ * one becomes dead. Records are {@code [length][crc32][payload]} and carry a log sequence
+ * number, so on startup the segments are replayed and the highest sequence number wins
+ * for each id. Replay skips a record whose checksum fails and stops where the written data
+ * ends. A segment with bytes past a point replay cannot step over is left exactly as it is:
+ * it is never appended to, zeroed or compacted, so recovery never destroys records it
+ * could not read.
+ *
+ * Lookups go through in-memory indexes on id, {@code createdAt}, tournament and player;
+ * reads decode straight from the mapped segment without any file I/O. Sealed segments
+ * that are mostly dead, or too small, are compacted in the background by copying their
+ * live records into a new segment.
+ *
+ * Writes reach the page cache immediately and survive a process crash. They are forced
+ * to disk every {@code embedded-store.sync-interval-ms}, which bounds the loss on a
+ * machine crash.
+ */
+@Slf4j
+@Repository
+@Profile("embedded")
+public class SegmentLogPredictionStore implements PredictionStore {
+    
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".seg.tmp";
+    private static final int HEADER_BYTES = 8;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    
+    private static final Comparator<TimeKey> TIME_ORDER =
+            Comparator.comparing(TimeKey::createdAt).thenComparingLong(TimeKey::id);
+    
+    private final Path directory;
+    private final int segmentSize;
+    private final double compactionThreshold;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Segment> segments = new HashMap<>();
+    private final TreeMap<Long, Long> locations = new TreeMap<>();
+    private final TreeSet<TimeKey> byCreatedAt = new TreeSet<>(TIME_ORDER);
+    private final Map<String, NavigableSet<Long>> byTournament = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> byPlayer = new HashMap<>();
+    private final AtomicLong nextSegmentNumber = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final CRC32 writeCrc = new CRC32();
+    
+    private Segment active;
+    private long nextId = 1;
+    private long nextLsn = 1;
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+    
+    public SegmentLogPredictionStore(@Value("${embedded-store.directory:data/predictions}") String directory,
+                                     @Value("${embedded-store.segment-size-bytes:67108864}") int segmentSize,
+                                     @Value("${embedded-store.compaction-threshold:0.5}") double compactionThreshold) {
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.compactionThreshold = compactionThreshold;
+    }
+    
+    private static final class Segment {
+        final long number;
+        final Path path;
+        final MappedByteBuffer buffer;
+        int end;
+        long liveBytes;
+        boolean damaged;
+        
+        Segment(long number, Path path, MappedByteBuffer buffer) {
+            this.number = number;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+    
+    private record TimeKey(LocalDateTime createdAt, long id) {
+    }
+    
+    private record LiveRecord(long id, long location, int size) {
+    }
+    
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.sorted().toList();
+        }
+        
+        Map<Long, Long> lsnById = new HashMap<>();
+        long maxId = 0;
+        long maxLsn = 0;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(TEMP_SUFFIX)) {
+                // An unfinished compaction; its source segments are still intact
+                Files.delete(file);
+                continue;
+            }
+            if (!name.endsWith(SEGMENT_SUFFIX)) {
+                continue;
+            }
+            
+            Segment segment = replay(file, lsnById);
+            if (segment.end == 0 && !segment.damaged) {
+                Files.delete(file);
+                continue;
+            }
+            segments.put(segment.number, segment);
+            nextSegmentNumber.set(Math.max(nextSegmentNumber.get(), segment.number + 1));
+        }
+        
+        for (Map.Entry<Long, Long> entry : locations.entrySet()) {
+            Segment segment = segments.get(segmentNumber(entry.getValue()));
+            segment.liveBytes += recordSize(segment, offset(entry.getValue()));
+            index(read(entry.getValue()));
+            maxId = Math.max(maxId, entry.getKey());
+        }
+        for (long lsn : lsnById.values()) {
+            maxLsn = Math.max(maxLsn, lsn);
+        }
+        nextId = maxId + 1;
+        nextLsn = maxLsn + 1;
+        
+        // Keep appending to the newest full-size segment that still has room, so every
+        // restart does not start a fresh segment; compaction outputs are sized exactly
+        Segment tail = null;
+        for (Segment segment : segments.values()) {
+            if (!segment.damaged && segment.buffer.capacity() == segmentSize
+                    && segment.end + HEADER_BYTES < segmentSize
+                    && (tail == null || segment.number > tail.number)) {
+                tail = segment;
+            }
+        }
+        active = tail != null
+                ? reopenForAppend(tail)
+                : createSegment(nextSegmentNumber.getAndIncrement(), segmentSize, false);
+        segments.put(active.number, active);
+        
+        log.info("Embedded prediction store opened at {}: {} predictions in {} segments",
+                directory.toAbsolutePath(), locations.size(), segments.size());
+    }
+    
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            active.buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public MatchPrediction save(MatchPrediction prediction) {
+        lock.writeLock().lock();
+        try {
+            if (prediction.getId() == null) {
+                prediction.setId(nextId++);
+            } else {
+                nextId = Math.max(nextId, prediction.getId() + 1);
+                if (locations.containsKey(prediction.getId())) {
+                    // What @PreUpdate does for the JPA store
+                    prediction.setUpdatedAt(LocalDateTime.now());
+                }
+            }
+            
+            ByteBuffer payload = encode(nextLsn++, prediction);
+            int size = HEADER_BYTES + payload.remaining();
+            if (size > segmentSize) {
+                throw new IllegalArgumentException("Prediction record exceeds the segment size");
+            }
+            if (active.end + size > active.buffer.capacity()) {
+                roll();
+            }
+            
+            int offset = active.end;
+            writeCrc.reset();
+            writeCrc.update(payload.duplicate());
+            active.buffer.putInt(offset + 4, (int) writeCrc.getValue());
+            active.buffer.put(offset + HEADER_BYTES, payload, 0, payload.remaining());
+            active.buffer.putInt(offset, payload.remaining());
+            active.end += size;
+            active.liveBytes += size;
+            
+            Long previous = locations.put(prediction.getId(), location(active.number, offset));
+            if (previous != null) {
+                Segment old = segments.get(segmentNumber(previous));
+                old.liveBytes -= recordSize(old, offset(previous));
+                unindex(read(previous));
+            }
+            index(prediction);
+            return prediction;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public Optional<MatchPrediction> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            Long location = locations.get(id);
+            return location == null ? Optional.empty() : Optional.of(read(location));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public Page<MatchPrediction> findAll(Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            Iterator<Long> ids = orderedIds(pageable.getSort());
+            long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+            int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+            
+            List<MatchPrediction> content = new ArrayList<>();
+            while (ids.hasNext() && content.size() < limit) {
+                Long id = ids.next();
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                content.add(read(locations.get(id)));
+            }
+            return new PageImpl<>(content, pageable, locations.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<MatchPrediction> findByTournament(String tournament) {
+        return findIndexed(byTournament, tournament);
+    }
+    
+    @Override
+    public List<MatchPrediction> findByPlayer(String playerName) {
+        return findIndexed(byPlayer, playerName);
+    }
+    
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return locations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            long totalBytes = 0;
+            long liveBytes = 0;
+            for (Segment segment : segments.values()) {
+                totalBytes += segment.end;
+                liveBytes += segment.liveBytes;
+            }
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("predictions", locations.size());
+            stats.put("segments", segments.size());
+            stats.put("total_bytes", totalBytes);
+            stats.put("live_bytes", liveBytes);
+            stats.put("compactions", compactions.get());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${embedded-store.sync-interval-ms:1000}")
+    public void sync() {
+        Segment segment;
+        lock.readLock().lock();
+        try {
+            segment = active;
+        } finally {
+            lock.readLock().unlock();
+        }
+        segment.buffer.force();
+    }
+    
+    /**
+     * Rewrites the live records of sealed segments that are mostly dead, or small enough to
+     * be worth merging, into new segments. Records keep their sequence numbers, so a crash
+     * between publishing the new segment and deleting the old ones replays to the same state.
+     */
+    @Scheduled(fixedDelayString = "${embedded-store.compaction-interval-ms:60000}")
+    public void compact() {
+        Set<Long> victims = new HashSet<>();
+        List<LiveRecord> live = new ArrayList<>();
+        Map<Long, Segment> sources = new HashMap<>();
+        
+        lock.readLock().lock();
+        try {
+            boolean anyDead = false;
+            for (Segment segment : segments.values()) {
+                if (segment == active || segment.damaged) {
+                    continue;
+                }
+                boolean dead = segment.liveBytes < segment.end * compactionThreshold;
+                if (dead || segment.end < segmentSize / 4) {
+                    victims.add(segment.number);
+                    sources.put(segment.number, segment);
+                    anyDead |= segment.liveBytes < segment.end;
+                }
+            }
+            if (victims.size() < 2 && !anyDead) {
+                return;
+            }
+            for (Map.Entry<Long, Long> entry : locations.entrySet()) {
+                long location = entry.getValue();
+                Segment segment = sources.get(segmentNumber(location));
+                if (segment != null) {
+                    live.add(new LiveRecord(entry.getKey(), location, recordSize(segment, offset(location))));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        try {
+            List<Segment> outputs = new ArrayList<>();
+            Map<Long, Long> moved = new HashMap<>();
+            int start = 0;
+            while (start < live.size()) {
+                int end = start;
+                int bytes = 0;
+                while (end < live.size() && bytes + live.get(end).size() <= segmentSize) {
+                    bytes += live.get(end).size();
+                    end++;
+                }
+                outputs.add(writeCompacted(live.subList(start, end), bytes, sources, moved));
+                start = end;
+            }
+            
+            lock.writeLock().lock();
+            try {
+                for (Segment output : outputs) {
+                    segments.put(output.number, output);
+                }
+                for (LiveRecord record : live) {
+                    // Saved again while we were copying: the copy is already dead
+                    Long current = locations.get(record.id());
+                    if (current != null && current == record.location()) {
+                        long location = moved.get(record.id());
+                        locations.put(record.id(), location);
+                        segments.get(segmentNumber(location)).liveBytes += record.size();
+                    }
+                }
+                victims.forEach(segments::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            
+            for (Segment victim : sources.values()) {
+                Files.deleteIfExists(victim.path);
+            }
+            compactions.incrementAndGet();
+            log.info("Compacted {} segments into {}, keeping {} records", victims.size(), outputs.size(), live.size());
+        } catch (IOException e) {
+            log.warn("Segment compaction failed, keeping the existing segments", e);
+        }
+    }
+    
+    private Segment writeCompacted(List<LiveRecord> records, int bytes, Map<Long, Segment> sources,
+                                   Map<Long, Long> moved) throws IOException {
+        long number = nextSegmentNumber.getAndIncrement();
+        Segment output = createSegment(number, bytes, true);
+        int offset = 0;
+        for (LiveRecord record : records) {
+            Segment source = sources.get(segmentNumber(record.location()));
+            output.buffer.put(offset, source.buffer, offset(record.location()), record.size());
+            moved.put(record.id(), location(number, offset));
+            offset += record.size();
+        }
+        output.end = offset;
+        output.buffer.force();
+        
+        Path target = segmentPath(number, SEGMENT_SUFFIX);
+        Files.move(output.path, target, StandardCopyOption.ATOMIC_MOVE);
+        Segment published = new Segment(number, target, output.buffer);
+        published.end = output.end;
+        return published;
+    }
+    
+    private void roll() {
+        Segment sealed = active;
+        sealed.buffer.force();
+        try {
+            active = createSegment(nextSegmentNumber.getAndIncrement(), segmentSize, false);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create a new prediction segment", e);
+        }
+        segments.put(active.number, active);
+        log.debug("Rolled prediction segment {} at {} bytes", sealed.number, sealed.end);
+    }
+    
+    /**
+     * Maps a recovered segment for writing. Anything past its recovered end is a torn
+     * write, never followed by a readable record, and is zeroed first; left in place, a stale record there
+     * could line up behind a new append and be replayed with a sequence number from the
+     * previous run.
+     */
+    private Segment reopenForAppend(Segment tail) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(tail.path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        byte[] zeros = new byte[8192];
+        boolean zeroed = false;
+        for (int position = tail.end; position < segmentSize; position += zeros.length) {
+            int length = Math.min(zeros.length, segmentSize - position);
+            if (!isZero(buffer, position, length)) {
+                buffer.put(position, zeros, 0, length);
+                zeroed = true;
+            }
+        }
+        if (zeroed) {
+            buffer.force();
+        }
+        
+        Segment reopened = new Segment(tail.number, tail.path, buffer);
+        reopened.end = tail.end;
+        reopened.liveBytes = tail.liveBytes;
+        log.debug("Appending to recovered prediction segment {} at {} bytes", tail.number, tail.end);
+        return reopened;
+    }
+    
+    private static boolean isZero(ByteBuffer buffer, int position, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(position + i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private Segment createSegment(long number, int size, boolean temporary) throws IOException {
+        Path path = segmentPath(number, temporary ? TEMP_SUFFIX : SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(number, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+    
+    private Segment replay(Path file, Map<Long, Long> lsnById) throws IOException {
+        String name = file.getFileName().toString();
+        long number = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        Segment segment = new Segment(number, file, buffer);
+        
+        CRC32 crc = new CRC32();
+        int position = 0;
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - HEADER_BYTES) {
+                // The length is written last, so a torn append leaves nothing readable after it
+                if (!isZero(buffer, position + 4, buffer.capacity() - position - 4)) {
+                    log.error("Unreadable data at {}:{}; the rest of the segment is kept but not replayed",
+                            name, position);
+                    segment.damaged = true;
+                } else if (length != 0) {
+                    log.warn("Discarding torn record at {}:{}", name, position);
+                }
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(position + HEADER_BYTES, length));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                // The length still marks where the next record starts
+                log.warn("Skipping corrupt record at {}:{}", name, position);
+                position += HEADER_BYTES + length;
+                continue;
+            }
+            
+            long lsn = buffer.getLong(position + HEADER_BYTES);
+            long id = buffer.getLong(position + HEADER_BYTES + 8);
+            Long known = lsnById.get(id);
+            if (known == null || lsn > known) {
+                lsnById.put(id, lsn);
+                locations.put(id, location(number, position));
+            }
+            position += HEADER_BYTES + length;
+        }
+        segment.end = position;
+        return segment;
+    }
+    
+    private List<MatchPrediction> findIndexed(Map<String, NavigableSet<Long>> index, String key) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Long> ids = index.get(key);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            List<MatchPrediction> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                result.add(read(locations.get(id)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private Iterator<Long> orderedIds(Sort sort) {
+        if (sort.isUnsorted()) {
+            return locations.keySet().iterator();
+        }
+        List<Sort.Order> orders = sort.toList();
+        Sort.Order order = orders.get(0);
+        if (orders.size() == 1 && order.getProperty().equals("id")) {
+            return order.isAscending() ? locations.keySet().iterator() : locations.descendingKeySet().iterator();
+        }
+        if (orders.size() == 1 && order.getProperty().equals("createdAt")) {
+            Iterator<TimeKey> keys = order.isAscending() ? byCreatedAt.iterator() : byCreatedAt.descendingIterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return keys.hasNext();
+                }
+                
+                @Override
+                public Long next() {
+                    return keys.next().id();
+                }
+            };
+        }
+        throw new IllegalArgumentException("Embedded store can only sort by id or createdAt");
+    }
+    
+    private void index(MatchPrediction prediction) {
+        long id = prediction.getId();
+        byCreatedAt.add(timeKey(prediction));
+        byTournament.computeIfAbsent(prediction.getTournament(), k -> new TreeSet<>()).add(id);
+        byPlayer.computeIfAbsent(prediction.getPlayer1Name(), k -> new TreeSet<>()).add(id);
+        byPlayer.computeIfAbsent(prediction.getPlayer2Name(), k -> new TreeSet<>()).add(id);
+    }
+    
+    private void unindex(MatchPrediction prediction) {
+        long id = prediction.getId();
+        byCreatedAt.remove(timeKey(prediction));
+        removeFrom(byTournament, prediction.getTournament(), id);
+        removeFrom(byPlayer, prediction.getPlayer1Name(), id);
+        removeFrom(byPlayer, prediction.getPlayer2Name(), id);
+    }
+    
+    private void removeFrom(Map<String, NavigableSet<Long>> index, String key, long id) {
+        NavigableSet<Long> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+    
+    private TimeKey timeKey(MatchPrediction prediction) {
+        LocalDateTime createdAt = prediction.getCreatedAt();
+        return new TimeKey(createdAt != null ? createdAt : LocalDateTime.MIN, prediction.getId());
+    }
+    
+    private ByteBuffer encode(long lsn, MatchPrediction prediction) {
+        while (true) {
+            try {
+                scratch.clear();
+                scratch.putLong(lsn);
+                scratch.putLong(prediction.getId());
+                putTime(prediction.getCreatedAt());
+                putTime(prediction.getUpdatedAt());
+                putDouble(prediction.getPlayer1WinProbability());
+                putDouble(prediction.getPlayer2WinProbability());
+                putDouble(prediction.getConfidence());
+                scratch.put(prediction.getCorrect() == null ? (byte) -1 : prediction.getCorrect() ? (byte) 1 : (byte) 0);
+                putString(prediction.getPlayer1Name());
+                putString(prediction.getPlayer2Name());
+                putString(prediction.getPredictedWinner());
+                putString(prediction.getTournament());
+                putString(prediction.getSurface());
+                putString(prediction.getActualWinner());
+                return scratch.flip();
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+    
+    private void putTime(LocalDateTime time) {
+        scratch.putLong(time == null ? NULL_TIME : time.toEpochSecond(ZoneOffset.UTC));
+        scratch.putInt(time == null ? 0 : time.getNano());
+    }
+    
+    private void putDouble(Double value) {
+        scratch.putDouble(value == null ? Double.NaN : value);
+    }
+    
+    private void putString(String value) {
+        if (value == null) {
+            scratch.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        scratch.putInt(bytes.length);
+        scratch.put(bytes);
+    }
+    
+    /** Decodes a record in place from its mapped segment, using absolute reads only. */
+    private MatchPrediction read(long location) {
+        RecordReader reader = new RecordReader(segments.get(segmentNumber(location)).buffer,
+                offset(location) + HEADER_BYTES);
+        reader.skipLong();
+        long id = reader.getLong();
+        LocalDateTime createdAt = reader.getTime();
+        LocalDateTime updatedAt = reader.getTime();
+        Double player1WinProbability = reader.getDouble();
+        Double player2WinProbability = reader.getDouble();
+        Double confidence = reader.getDouble();
+        byte correct = reader.getByte();
+        
+        return MatchPrediction.builder()
+                .id(id)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .player1WinProbability(player1WinProbability)
+                .player2WinProbability(player2WinProbability)
+                .confidence(confidence)
+                .correct(correct < 0 ? null : correct == 1)
+                .player1Name(reader.getString())
+                .player2Name(reader.getString())
+                .predictedWinner(reader.getString())
+                .tournament(reader.getString())
+                .surface(reader.getString())
+                .actualWinner(reader.getString())
+                .build();
+    }
+    
+    private static final class RecordReader {
+        private final ByteBuffer buffer;
+        private int position;
+        
+        RecordReader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+        
+        void skipLong() {
+            position += 8;
+        }
+        
+        long getLong() {
+            long value = buffer.getLong(position);
+            position += 8;
+            return value;
+        }
+        
+        byte getByte() {
+            return buffer.get(position++);
+        }
+        
+        Double getDouble() {
+            double value = buffer.getDouble(position);
+            position += 8;
+            return Double.isNaN(value) ? null : value;
+        }
+        
+        LocalDateTime getTime() {
+            long seconds = getLong();
+            int nanos = buffer.getInt(position);
+            position += 4;
+            return seconds == NULL_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        }
+        
+        String getString() {
+            int length = buffer.getInt(position);
+            position += 4;
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+    
+    private int recordSize(Segment segment, int offset) {
+        return HEADER_BYTES + segment.buffer.getInt(offset);
+    }
+    
+    private Path segmentPath(long number, String suffix) {
+        return directory.resolve(String.format("%012d%s", number, suffix));
+    }
+    
+    private static long location(long segmentNumber, int offset) {
+        return segmentNumber << 32 | offset;
+    }
+    
+    private static long segmentNumber(long location) {
+        return location >>> 32;
+    }
+    
+    private static int offset(long location) {
+        return (int) location;
+    }
+}
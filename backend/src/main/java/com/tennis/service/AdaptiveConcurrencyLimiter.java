@@ -0,0 +1,71 @@
+package com.tennis.service;
+
+/**
+ * AIMD concurrency limit. The limit grows by one while requests finish under the latency
+ * target and the pool is actually being used, and shrinks multiplicatively as soon as a
+ * request fails or runs over the target. A request turned away after taking a slot, e.g.
+ * rate limited once its cost was known, says nothing about capacity and is released with
+ * {@link #releaseIgnored()}.
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    
+    private double limit;
+    private int inFlight;
+    private long rejected;
+    
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      long targetLatencyMillis, double backoffRatio) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyMillis * 1_000_000L;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+    
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected++;
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+    
+    public synchronized void release(long latencyNanos, boolean success) {
+        inFlight--;
+        
+        if (!success || latencyNanos > targetLatencyNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= (int) limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+    
+    /** Frees the slot without moving the limit. */
+    public synchronized void releaseIgnored() {
+        inFlight--;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+    
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+    
+    public synchronized long getRejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,207 @@
+package com.tennis.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admission control for the prediction endpoints: a token bucket per client followed by
+ * separate adaptive concurrency pools for interactive and batch traffic, so a burst of
+ * batch calls cannot take the connections single predictions need.
+ *
+ * Buckets are keyed on the caller's address rather than anything the caller declares, so
+ * a client cannot mint fresh buckets by varying a header. Every request pays one token on
+ * admission; a batch pays the rest of its per-matchup cost once its size is known.
+ *
+ * Admitted requests hold a database connection for most of their run, so the two pools'
+ * upper limits are capped to share the Hikari pool: batch gets at most half of it and
+ * interactive the rest, whatever larger values are configured.
+ */
+@Slf4j
+@Service
+public class AdmissionControlService {
+    
+    public enum TrafficClass {
+        INTERACTIVE,
+        BATCH
+    }
+    
+    public enum Outcome {
+        ADMITTED,
+        RATE_LIMITED,
+        OVERLOADED
+    }
+    
+    public record Admission(Outcome outcome, long retryAfterSeconds,
+                            AdaptiveConcurrencyLimiter limiter, long startNanos, String clientKey) {
+        public boolean isAdmitted() {
+            return outcome == Outcome.ADMITTED;
+        }
+    }
+    
+    private static final String OVERFLOW_CLIENT = "__overflow__";
+    
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimiter interactiveLimiter;
+    private final AdaptiveConcurrencyLimiter batchLimiter;
+    
+    @Value("${admission.rate.capacity:20}")
+    private double bucketCapacity;
+    
+    @Value("${admission.rate.refill-per-second:5}")
+    private double refillPerSecond;
+    
+    @Value("${admission.rate.batch-cost-per-matchup:1}")
+    private double batchCostPerMatchup;
+    
+    @Value("${admission.rate.max-clients:10000}")
+    private int maxClients;
+    
+    @Value("${admission.rate.idle-eviction-ms:300000}")
+    private long idleEvictionMillis;
+    
+    public AdmissionControlService(
+            @Value("${admission.interactive.initial-limit:4}") int interactiveInitial,
+            @Value("${admission.interactive.max-limit:6}") int interactiveMax,
+            @Value("${admission.interactive.target-latency-ms:2000}") long interactiveTarget,
+            @Value("${admission.batch.initial-limit:2}") int batchInitial,
+            @Value("${admission.batch.max-limit:4}") int batchMax,
+            @Value("${admission.batch.target-latency-ms:30000}") long batchTarget,
+            @Value("${admission.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        int batchCap = Math.max(1, Math.min(batchMax, connectionPoolSize / 2));
+        int interactiveCap = Math.max(1, Math.min(interactiveMax, connectionPoolSize - batchCap));
+        if (batchCap < batchMax || interactiveCap < interactiveMax) {
+            log.warn("Admission limits {}/{} exceed the connection pool of {}, capped to {}/{}",
+                    interactiveMax, batchMax, connectionPoolSize, interactiveCap, batchCap);
+        }
+        this.interactiveLimiter = new AdaptiveConcurrencyLimiter(
+                "interactive", interactiveInitial, 1, interactiveCap, interactiveTarget, backoffRatio);
+        this.batchLimiter = new AdaptiveConcurrencyLimiter(
+                "batch", batchInitial, 1, batchCap, batchTarget, backoffRatio);
+    }
+    
+    /**
+     * @param clientKey the caller's address or authenticated identity; buckets are keyed on it
+     * @param clientLabel optional caller-supplied name, used only in logs
+     */
+    public Admission admit(String clientKey, String clientLabel, TrafficClass trafficClass) {
+        long now = System.nanoTime();
+        
+        long waitNanos = bucketFor(clientKey, now).tryConsume(1, now);
+        if (waitNanos > 0) {
+            return new Admission(Outcome.RATE_LIMITED, retryAfterSeconds(waitNanos), null, now, clientKey);
+        }
+        
+        AdaptiveConcurrencyLimiter limiter = trafficClass == TrafficClass.BATCH ? batchLimiter : interactiveLimiter;
+        if (!limiter.tryAcquire()) {
+            log.debug("Shedding {} request from {} ({}): {} in flight",
+                    limiter.getName(), clientKey, clientLabel, limiter.getInFlight());
+            return new Admission(Outcome.OVERLOADED, 1, null, now, clientKey);
+        }
+        return new Admission(Outcome.ADMITTED, 0, limiter, now, clientKey);
+    }
+    
+    /**
+     * Charges an admitted batch for its matchups beyond the token paid on admission. Returns
+     * 0 when charged, otherwise the seconds to wait before retrying.
+     */
+    public long chargeBatch(String clientKey, int matchups) {
+        double cost = matchups * batchCostPerMatchup - 1;
+        if (cost <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long waitNanos = bucketFor(clientKey, now).tryConsume(cost, now);
+        return waitNanos > 0 ? retryAfterSeconds(waitNanos) : 0;
+    }
+    
+    public void release(Admission admission, boolean success) {
+        if (admission.limiter() != null) {
+            admission.limiter().release(System.nanoTime() - admission.startNanos(), success);
+        }
+    }
+    
+    /** Releases a request that was turned away after admission, e.g. by {@link #chargeBatch}. */
+    public void releaseIgnored(Admission admission) {
+        if (admission.limiter() != null) {
+            admission.limiter().releaseIgnored();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("tracked_clients", buckets.size());
+        for (AdaptiveConcurrencyLimiter limiter : new AdaptiveConcurrencyLimiter[]{interactiveLimiter, batchLimiter}) {
+            Map<String, Object> pool = new HashMap<>();
+            pool.put("limit", limiter.getLimit());
+            pool.put("in_flight", limiter.getInFlight());
+            pool.put("rejected", limiter.getRejected());
+            stats.put(limiter.getName(), pool);
+        }
+        return stats;
+    }
+    
+    @Scheduled(fixedRateString = "${admission.rate.idle-eviction-ms:300000}")
+    public void evictIdleBuckets() {
+        long cutoff = System.nanoTime() - idleEvictionMillis * 1_000_000L;
+        buckets.values().removeIf(bucket -> bucket.lastUsedBefore(cutoff));
+    }
+    
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+    
+    private TokenBucket bucketFor(String clientKey, long now) {
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Unknown clients past the cap share one bucket rather than growing the map unbounded
+        String key = buckets.size() >= maxClients ? OVERFLOW_CLIENT : clientKey;
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(bucketCapacity, refillPerSecond, now));
+    }
+    
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+        private long lastUsed;
+        
+        private TokenBucket(double capacity, double refillPerSecond, long now) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1_000_000_000d;
+            this.tokens = capacity;
+            this.lastRefill = now;
+            this.lastUsed = now;
+        }
+        
+        /**
+         * Returns 0 when the tokens were taken, otherwise the nanos until they would be available.
+         * A cost above the capacity is admitted from a full bucket and leaves it in debt, so large
+         * batches are possible but hold off the client's next requests in proportion.
+         */
+        synchronized long tryConsume(double cost, long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            lastUsed = now;
+            
+            double required = Math.min(cost, capacity);
+            if (tokens >= required) {
+                tokens -= cost;
+                return 0;
+            }
+            return (long) Math.ceil((required - tokens) / refillPerNano);
+        }
+        
+        synchronized boolean lastUsedBefore(long cutoff) {
+            return lastUsed < cutoff;
+        }
+    }
+}
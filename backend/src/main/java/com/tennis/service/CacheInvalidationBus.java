@@ -0,0 +1,294 @@
+package com.tennis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cross-node cache invalidation over PostgreSQL {@code LISTEN/NOTIFY} on the application
+ * database. Keys published on this node are coalesced and sent as one batched notification
+ * per flush, stamped with this node's id and a sequence number. Receivers apply batches in
+ * sequence order; a gap in a node's sequence, or a dropped listener connection, means
+ * invalidations may have been lost, so every {@link CacheInvalidationListener} is told
+ * to resync.
+ *
+ * The first {@code LISTEN} is issued while the context starts, before any runner loads a
+ * cache, so nothing published during cache loading or warm-up is missed. If that first
+ * connection fails, the one that eventually succeeds resyncs like any reconnect.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBus implements SmartLifecycle {
+    
+    // NOTIFY payloads are limited to 8000 bytes; leave room for the envelope
+    private static final int MAX_KEYS_BYTES = 7000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<CacheInvalidationListener> listeners;
+    
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> lastSequenceByNode = new HashMap<>();
+    private final AtomicLong resyncs = new AtomicLong();
+    
+    @Value("${cache-bus.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cache-bus.channel:cache_invalidation}")
+    private String channel;
+    
+    @Value("${cache-bus.poll-timeout-ms:500}")
+    private int pollTimeoutMillis;
+    
+    @Value("${cache-bus.reconnect-delay-ms:2000}")
+    private long reconnectDelayMillis;
+    
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread listenerThread;
+    
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                                ObjectMapper objectMapper, ObjectProvider<CacheInvalidationListener> listeners) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.listeners = listeners;
+    }
+    
+    private record Batch(String node, long seq, List<String> keys) {
+    }
+    
+    /** Queues a key for the next flush. Call after the write it describes has committed. */
+    public void publish(String key) {
+        if (enabled) {
+            pending.add(key);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cache-bus.flush-interval-ms:50}")
+    public void flush() {
+        if (!enabled || pending.isEmpty()) {
+            return;
+        }
+        
+        List<String> keys = new ArrayList<>();
+        int bytes = 0;
+        Iterator<String> it = pending.iterator();
+        while (it.hasNext()) {
+            String key = it.next();
+            it.remove();
+            int size = key.getBytes(StandardCharsets.UTF_8).length + 3;
+            if (bytes + size > MAX_KEYS_BYTES && !keys.isEmpty()) {
+                send(keys);
+                keys = new ArrayList<>();
+                bytes = 0;
+            }
+            keys.add(key);
+            bytes += size;
+        }
+        send(keys);
+    }
+    
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Cache invalidation bus disabled");
+            return;
+        }
+        running = true;
+        Connection initial = null;
+        try {
+            initial = openListener();
+        } catch (SQLException e) {
+            log.warn("Cache invalidation listener could not connect at startup, retrying in the background", e);
+        }
+        Connection first = initial;
+        listenerThread = new Thread(() -> listen(first), "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /** Early, so listening starts before the web server and well before the runners. */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    /** True while {@code key} is queued and not yet sent. */
+    public boolean isPending(String key) {
+        return pending.contains(key);
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("connected", connected);
+        stats.put("last_sequence", sequence.get());
+        stats.put("resyncs", resyncs.get());
+        return stats;
+    }
+    
+    private void send(List<String> keys) {
+        // The sequence is taken even if the send fails, so receivers see the gap and resync
+        Batch batch = new Batch(nodeId, sequence.incrementAndGet(), keys);
+        try {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class,
+                    channel, objectMapper.writeValueAsString(batch));
+        } catch (Exception e) {
+            log.warn("Failed to publish {} cache invalidations", keys.size(), e);
+            return;
+        }
+        
+        Set<String> sent = new HashSet<>(keys);
+        for (CacheInvalidationListener listener : listeners) {
+            try {
+                listener.onBatch(nodeId, batch.seq(), sent);
+            } catch (Exception e) {
+                log.warn("Cache invalidation listener failed", e);
+            }
+        }
+    }
+    
+    private Connection openListener() throws SQLException {
+        Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + channel);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        connected = true;
+        log.info("Listening for cache invalidations on channel {}", channel);
+        return connection;
+    }
+    
+    /** {@code initial} is the connection opened at startup, or null if that attempt failed. */
+    private void listen(Connection initial) {
+        Connection opened = initial;
+        while (running) {
+            boolean reconnect = opened == null;
+            try (Connection connection = reconnect ? openListener() : opened) {
+                opened = null;
+                // Anything published while we were not listening is lost
+                if (reconnect) {
+                    resync("listener reconnected");
+                }
+                
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                connected = false;
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection, retrying in {} ms",
+                            reconnectDelayMillis, e);
+                    try {
+                        Thread.sleep(reconnectDelayMillis);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+        connected = false;
+    }
+    
+    /** Applies one notification payload; package-private so tests can drive it without a database. */
+    void receive(String payload) {
+        Batch batch;
+        try {
+            batch = objectMapper.readValue(payload, Batch.class);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed cache invalidation payload", e);
+            return;
+        }
+        if (nodeId.equals(batch.node())) {
+            return;
+        }
+        
+        Long last = lastSequenceByNode.get(batch.node());
+        if (last != null && batch.seq() <= last) {
+            return;
+        }
+        lastSequenceByNode.put(batch.node(), batch.seq());
+        
+        if (last != null && batch.seq() != last + 1) {
+            resync("sequence gap from node " + batch.node());
+            return;
+        }
+        
+        Set<String> keys = new HashSet<>(batch.keys());
+        for (CacheInvalidationListener listener : listeners) {
+            try {
+                listener.onBatch(batch.node(), batch.seq(), keys);
+                listener.onInvalidate(keys);
+            } catch (Exception e) {
+                log.warn("Cache invalidation listener failed", e);
+            }
+        }
+    }
+    
+    private void resync(String reason) {
+        resyncs.incrementAndGet();
+        log.info("Resyncing local caches: {}", reason);
+        for (CacheInvalidationListener listener : listeners) {
+            try {
+                listener.onResync();
+            } catch (Exception e) {
+                log.warn("Cache resync failed", e);
+            }
+        }
+    }
+}
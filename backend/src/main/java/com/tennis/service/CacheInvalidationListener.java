@@ -0,0 +1,24 @@
+package com.tennis.service;
+
+import java.util.Set;
+
+/**
+ * Implemented by in-process caches that must follow writes made on other backend nodes.
+ * Callbacks arrive on the {@link CacheInvalidationBus} listener thread.
+ */
+public interface CacheInvalidationListener {
+    
+    /** Keys written by another node, in the {@code scope:id} form passed to {@link CacheInvalidationBus#publish}. */
+    void onInvalidate(Set<String> keys);
+    
+    /**
+     * Every batch this node sent or accepted, named by the sending node and its sequence
+     * number; the pair identifies the same writes on every node. Called before
+     * {@link #onInvalidate} for received batches.
+     */
+    default void onBatch(String node, long sequence, Set<String> keys) {
+    }
+    
+    /** Invalidations may have been missed (reconnect or sequence gap); drop or re-version everything. */
+    void onResync();
+}
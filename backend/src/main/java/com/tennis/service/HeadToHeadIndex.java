@@ -0,0 +1,561 @@
+package com.tennis.service;
+
+import com.tennis.dto.HeadToHeadDto;
+import com.tennis.dto.PredictionRequest;
+import com.tennis.dto.PredictionResponse;
+import com.tennis.entity.MatchPrediction;
+import com.tennis.entity.Player;
+import com.tennis.event.PredictionEvent;
+import com.tennis.repository.PredictionStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory head-to-head records for every pair of players with a settled result. Entries
+ * live in a primitive open-addressing table keyed by the two player ids packed into one
+ * {@code long} (lower id in the high half), with each entry's wins per surface, the last
+ * {@code h2h.recent-results} results as a bit history, and win scores that decay with a
+ * half-life of {@code h2h.half-life-days}.
+ *
+ * Built from settled predictions at startup, by {@code WarmUpRunner} before readiness, and
+ * kept current from SETTLED events. Each prediction is counted once by id; settling it
+ * again with the other winner moves its result to that side in place. Settlements on other
+ * nodes arrive as {@code h2h:<id>} keys on the {@link CacheInvalidationBus}. Reads are
+ * optimistic and retry under the read lock only if a write raced them.
+ */
+@Slf4j
+@Service
+public class HeadToHeadIndex implements CacheInvalidationListener {
+    
+    private static final String[] SURFACES = {"HARD", "CLAY", "GRASS", "CARPET"};
+    private static final int OTHER_SURFACE = SURFACES.length;
+    private static final int SURFACE_SLOTS = SURFACES.length + 1;
+    private static final int BOOTSTRAP_PAGE_SIZE = 1000;
+    private static final String SETTLED_PREFIX = "h2h:";
+    
+    private final PlayerSnapshotService playerSnapshotService;
+    private final PredictionStore predictionStore;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final int recentResults;
+    private final long recentMask;
+    private final double decayPerMilli;
+    
+    private final StampedLock lock = new StampedLock();
+    private final LongAdder results = new LongAdder();
+    private final LongAdder corrections = new LongAdder();
+    private final LongAdder unresolved = new LongAdder();
+    private final ThreadLocal<Reading> readings = ThreadLocal.withInitial(Reading::new);
+    private Table table;
+    private Counted counted;
+    
+    public HeadToHeadIndex(PlayerSnapshotService playerSnapshotService, PredictionStore predictionStore,
+                           CacheInvalidationBus cacheInvalidationBus,
+                           @Value("${h2h.recent-results:10}") int recentResults,
+                           @Value("${h2h.half-life-days:365}") double halfLifeDays,
+                           @Value("${h2h.initial-capacity:1024}") int initialCapacity) {
+        this.playerSnapshotService = playerSnapshotService;
+        this.predictionStore = predictionStore;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.recentResults = Math.max(1, Math.min(64, recentResults));
+        this.recentMask = this.recentResults == 64 ? -1L : (1L << this.recentResults) - 1;
+        this.decayPerMilli = Math.log(2) / (halfLifeDays * 24 * 60 * 60 * 1000);
+        this.table = new Table(Integer.highestOneBit(Math.max(16, initialCapacity - 1)) << 1);
+        this.counted = new Counted(table.keys.length);
+    }
+    
+    /** Struct-of-arrays storage; side 0 of a slot is the player with the lower id. */
+    private static final class Table {
+        final long[] keys;
+        final int[] wins;
+        final long[] recent;
+        final byte[] recentCount;
+        final double[] decayed;
+        final long[] decayedAt;
+        final long[] recorded;
+        final int mask;
+        int size;
+        
+        Table(int capacity) {
+            keys = new long[capacity];
+            wins = new int[capacity * 2 * SURFACE_SLOTS];
+            recent = new long[capacity];
+            recentCount = new byte[capacity];
+            decayed = new double[capacity * 2];
+            decayedAt = new long[capacity];
+            recorded = new long[capacity];
+            mask = capacity - 1;
+        }
+    }
+    
+    /**
+     * Every counted prediction by id: the side that won it and its sequence number within its
+     * pair, which locates its bit in the recent history for as long as it stays there.
+     */
+    private static final class Counted {
+        final long[] ids;
+        final long[] sequences;
+        final byte[] sides;
+        final int mask;
+        int size;
+        
+        Counted(int capacity) {
+            ids = new long[capacity];
+            sequences = new long[capacity];
+            sides = new byte[capacity];
+            mask = capacity - 1;
+        }
+    }
+    
+    /** Reusable copy of one entry, taken without allocating. */
+    private static final class Reading {
+        final int[] wins = new int[2 * SURFACE_SLOTS];
+        long recent;
+        int recentCount;
+        double decayedLow;
+        double decayedHigh;
+        long decayedAt;
+    }
+    
+    public void bootstrap() {
+        if (playerSnapshotService.current().isEmpty()) {
+            playerSnapshotService.refresh();
+        }
+        try {
+            long start = System.currentTimeMillis();
+            int page = 0;
+            Page<MatchPrediction> batch;
+            do {
+                batch = predictionStore.findAll(PageRequest.of(page++, BOOTSTRAP_PAGE_SIZE, Sort.by("id")));
+                for (MatchPrediction prediction : batch) {
+                    if (prediction.getActualWinner() != null) {
+                        ingest(prediction.getId(), prediction.getPlayer1Name(), prediction.getPlayer2Name(),
+                                prediction.getActualWinner(), prediction.getSurface(), prediction.getCreatedAt());
+                    }
+                }
+            } while (batch.hasNext());
+            log.info("Head-to-head index built in {} ms: {}", System.currentTimeMillis() - start, getStats());
+        } catch (Exception e) {
+            log.warn("Failed to build head-to-head index from settled predictions", e);
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPredictionEvent(PredictionEvent event) {
+        if (event.getType() != PredictionEvent.Type.SETTLED) {
+            return;
+        }
+        PredictionResponse prediction = event.getPrediction();
+        ingest(prediction.getId(), prediction.getPlayer1Name(), prediction.getPlayer2Name(),
+                prediction.getActualWinner(), prediction.getSurface(), prediction.getCreatedAt());
+        if (prediction.getId() != null) {
+            cacheInvalidationBus.publish(SETTLED_PREFIX + prediction.getId());
+        }
+    }
+    
+    @Override
+    public void onInvalidate(Set<String> keys) {
+        for (String key : keys) {
+            if (!key.startsWith(SETTLED_PREFIX)) {
+                continue;
+            }
+            try {
+                predictionStore.findById(Long.valueOf(key.substring(SETTLED_PREFIX.length())))
+                        .filter(prediction -> prediction.getActualWinner() != null)
+                        .ifPresent(prediction -> ingest(prediction.getId(), prediction.getPlayer1Name(),
+                                prediction.getPlayer2Name(), prediction.getActualWinner(),
+                                prediction.getSurface(), prediction.getCreatedAt()));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed head-to-head key {}", key);
+            }
+        }
+    }
+    
+    /** Re-reads every settled prediction; counting by id makes this safe over a live index. */
+    @Override
+    public void onResync() {
+        bootstrap();
+    }
+    
+    /** Fills the request's head-to-head features that the caller did not supply. */
+    public void enrich(PredictionRequest request) {
+        PlayerSnapshotService.Snapshot snapshot = playerSnapshotService.current().orElse(null);
+        if (snapshot == null) {
+            return;
+        }
+        Player player1 = snapshot.named(request.getPlayer1Name());
+        Player player2 = snapshot.named(request.getPlayer2Name());
+        if (player1 == null || player2 == null || !validPair(player1.getId(), player2.getId())) {
+            return;
+        }
+        
+        Reading reading = readings.get();
+        if (!read(player1.getId(), player2.getId(), reading)) {
+            return;
+        }
+        int side = player1.getId() < player2.getId() ? 0 : 1;
+        int surface = surfaceIndex(request.getSurface());
+        
+        if (request.getH2hPlayer1Wins() == null) {
+            request.setH2hPlayer1Wins(totalWins(reading, side));
+        }
+        if (request.getH2hPlayer2Wins() == null) {
+            request.setH2hPlayer2Wins(totalWins(reading, 1 - side));
+        }
+        if (request.getH2hSurfacePlayer1Wins() == null) {
+            request.setH2hSurfacePlayer1Wins(reading.wins[side * SURFACE_SLOTS + surface]);
+        }
+        if (request.getH2hSurfacePlayer2Wins() == null) {
+            request.setH2hSurfacePlayer2Wins(reading.wins[(1 - side) * SURFACE_SLOTS + surface]);
+        }
+        if (request.getH2hRecentMatches() == null) {
+            request.setH2hRecentMatches(reading.recentCount);
+            request.setH2hRecentPlayer1Wins(recentWins(reading, side));
+        }
+        if (request.getH2hDecayedPlayer1Share() == null) {
+            // Decay scales both sides equally, so the share needs no decay factor
+            double low = reading.decayedLow;
+            double high = reading.decayedHigh;
+            if (low + high > 0) {
+                request.setH2hDecayedPlayer1Share((side == 0 ? low : high) / (low + high));
+            }
+        }
+    }
+    
+    public HeadToHeadDto lookup(long playerId, long opponentId) {
+        if (!validPair(playerId, opponentId)) {
+            throw new IllegalArgumentException("Head-to-head needs two different positive player ids");
+        }
+        
+        Reading reading = new Reading();
+        boolean found = read(playerId, opponentId, reading);
+        int side = playerId < opponentId ? 0 : 1;
+        
+        Map<String, int[]> bySurface = new LinkedHashMap<>();
+        for (int s = 0; s < SURFACE_SLOTS; s++) {
+            int playerWins = reading.wins[side * SURFACE_SLOTS + s];
+            int opponentWins = reading.wins[(1 - side) * SURFACE_SLOTS + s];
+            if (playerWins + opponentWins > 0) {
+                bySurface.put(s == OTHER_SURFACE ? "OTHER" : SURFACES[s], new int[]{playerWins, opponentWins});
+            }
+        }
+        
+        List<String> recent = new ArrayList<>();
+        for (int i = 0; i < reading.recentCount; i++) {
+            boolean lowerWon = (reading.recent >>> i & 1) == 1;
+            recent.add(lowerWon == (side == 0) ? "W" : "L");
+        }
+        
+        double[] scores = found ? decayedScores(reading, side, System.currentTimeMillis()) : new double[2];
+        int playerWins = totalWins(reading, side);
+        int opponentWins = totalWins(reading, 1 - side);
+        return HeadToHeadDto.builder()
+                .playerId(playerId)
+                .opponentId(opponentId)
+                .matches(playerWins + opponentWins)
+                .playerWins(playerWins)
+                .opponentWins(opponentWins)
+                .winsBySurface(bySurface)
+                .recentResults(recent)
+                .decayedPlayerScore(scores[0])
+                .decayedOpponentScore(scores[1])
+                .decayedPlayerShare(scores[0] + scores[1] > 0 ? scores[0] / (scores[0] + scores[1]) : null)
+                .build();
+    }
+    
+    public Map<String, Object> getStats() {
+        long stamp = lock.readLock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("pairs", table.size);
+            stats.put("capacity", table.keys.length);
+            stats.put("results", results.sum());
+            stats.put("corrections", corrections.sum());
+            stats.put("unresolved_results", unresolved.sum());
+            return stats;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    private void ingest(Long predictionId, String player1Name, String player2Name, String winnerName,
+                        String surface, LocalDateTime playedAt) {
+        PlayerSnapshotService.Snapshot snapshot = playerSnapshotService.current().orElse(null);
+        Player player1 = snapshot == null ? null : snapshot.named(player1Name);
+        Player player2 = snapshot == null ? null : snapshot.named(player2Name);
+        if (predictionId == null || predictionId <= 0 || player1 == null || player2 == null
+                || winnerName == null || !validPair(player1.getId(), player2.getId())) {
+            unresolved.increment();
+            return;
+        }
+        
+        boolean player1Won = winnerName.equalsIgnoreCase(player1Name);
+        long winnerId = player1Won ? player1.getId() : player2.getId();
+        long loserId = player1Won ? player2.getId() : player1.getId();
+        LocalDateTime at = playedAt != null ? playedAt : LocalDateTime.now();
+        long playedAtMillis = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        int side = winnerId < loserId ? 0 : 1;
+        
+        long stamp = lock.writeLock();
+        try {
+            int entry = findCounted(counted, predictionId);
+            if (entry < 0) {
+                long sequence = record(winnerId, loserId, surfaceIndex(surface), playedAtMillis);
+                addCounted(predictionId, -entry - 1, sequence, side);
+                results.increment();
+            } else if (counted.sides[entry] != side) {
+                correct(key(winnerId, loserId), counted.sequences[entry], side, surfaceIndex(surface), playedAtMillis);
+                counted.sides[entry] = (byte) side;
+                corrections.increment();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    /** Caller holds the write lock. Returns the result's sequence number within its pair. */
+    private long record(long winnerId, long loserId, int surface, long playedAtMillis) {
+        long key = key(winnerId, loserId);
+        int slot = find(table, key);
+        if (slot < 0) {
+            slot = insert(key, -slot - 1);
+        }
+        Table t = table;
+        int side = winnerId < loserId ? 0 : 1;
+        
+        t.wins[(slot * 2 + side) * SURFACE_SLOTS + surface]++;
+        t.recent[slot] = (t.recent[slot] << 1 | (side == 0 ? 1 : 0)) & recentMask;
+        t.recentCount[slot] = (byte) Math.min(recentResults, t.recentCount[slot] + 1);
+        
+        long at = t.decayedAt[slot];
+        if (playedAtMillis >= at) {
+            double factor = Math.exp(-decayPerMilli * (playedAtMillis - at));
+            t.decayed[slot * 2] *= factor;
+            t.decayed[slot * 2 + 1] *= factor;
+            t.decayedAt[slot] = playedAtMillis;
+            t.decayed[slot * 2 + side] += 1.0;
+        } else {
+            // An older result arriving late counts with the weight it has today
+            t.decayed[slot * 2 + side] += Math.exp(-decayPerMilli * (at - playedAtMillis));
+        }
+        return t.recorded[slot]++;
+    }
+    
+    /**
+     * Moves a counted result to {@code winnerSide}: one win off the other side and one on, its
+     * recent-history bit flipped if still held, and its decayed weight moved across. Caller
+     * holds the write lock.
+     */
+    private void correct(long key, long sequence, int winnerSide, int surface, long playedAtMillis) {
+        Table t = table;
+        int slot = find(t, key);
+        if (slot < 0) {
+            return;
+        }
+        int loserSide = 1 - winnerSide;
+        
+        int from = (slot * 2 + loserSide) * SURFACE_SLOTS + surface;
+        if (t.wins[from] > 0) {
+            t.wins[from]--;
+        }
+        t.wins[(slot * 2 + winnerSide) * SURFACE_SLOTS + surface]++;
+        
+        long age = t.recorded[slot] - 1 - sequence;
+        if (age >= 0 && age < t.recentCount[slot]) {
+            t.recent[slot] ^= 1L << age;
+        }
+        
+        double weight = Math.exp(-decayPerMilli * Math.max(0, t.decayedAt[slot] - playedAtMillis));
+        t.decayed[slot * 2 + loserSide] = Math.max(0, t.decayed[slot * 2 + loserSide] - weight);
+        t.decayed[slot * 2 + winnerSide] += weight;
+    }
+    
+    /** Caller holds the write lock; {@code slot} is the insertion slot from {@link #findCounted}. */
+    private void addCounted(long predictionId, int slot, long sequence, int side) {
+        Counted c = counted;
+        if ((c.size + 1) * 2 > c.ids.length) {
+            Counted grown = new Counted(c.ids.length * 2);
+            for (int from = 0; from < c.ids.length; from++) {
+                if (c.ids[from] != 0) {
+                    int to = -findCounted(grown, c.ids[from]) - 1;
+                    grown.ids[to] = c.ids[from];
+                    grown.sequences[to] = c.sequences[from];
+                    grown.sides[to] = c.sides[from];
+                    grown.size++;
+                }
+            }
+            counted = grown;
+            c = grown;
+            slot = -findCounted(c, predictionId) - 1;
+        }
+        c.ids[slot] = predictionId;
+        c.sequences[slot] = sequence;
+        c.sides[slot] = (byte) side;
+        c.size++;
+    }
+    
+    private int insert(long key, int slot) {
+        Table t = table;
+        if ((t.size + 1) * 2 > t.keys.length) {
+            resize();
+            t = table;
+            slot = -find(t, key) - 1;
+        }
+        t.keys[slot] = key;
+        t.size++;
+        return slot;
+    }
+    
+    private void resize() {
+        Table old = table;
+        Table grown = new Table(old.keys.length * 2);
+        for (int from = 0; from < old.keys.length; from++) {
+            if (old.keys[from] == 0) {
+                continue;
+            }
+            int to = -find(grown, old.keys[from]) - 1;
+            grown.keys[to] = old.keys[from];
+            System.arraycopy(old.wins, from * 2 * SURFACE_SLOTS, grown.wins, to * 2 * SURFACE_SLOTS, 2 * SURFACE_SLOTS);
+            grown.recent[to] = old.recent[from];
+            grown.recentCount[to] = old.recentCount[from];
+            grown.decayed[to * 2] = old.decayed[from * 2];
+            grown.decayed[to * 2 + 1] = old.decayed[from * 2 + 1];
+            grown.decayedAt[to] = old.decayedAt[from];
+            grown.recorded[to] = old.recorded[from];
+            grown.size++;
+        }
+        table = grown;
+    }
+    
+    private boolean read(long playerId, long opponentId, Reading into) {
+        long key = key(playerId, opponentId);
+        long stamp = lock.tryOptimisticRead();
+        boolean found = copy(table, key, into);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = copy(table, key, into);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+    
+    private boolean copy(Table t, long key, Reading into) {
+        int slot = find(t, key);
+        if (slot < 0) {
+            Arrays.fill(into.wins, 0);
+            into.recent = 0;
+            into.recentCount = 0;
+            into.decayedLow = 0;
+            into.decayedHigh = 0;
+            into.decayedAt = 0;
+            return false;
+        }
+        System.arraycopy(t.wins, slot * 2 * SURFACE_SLOTS, into.wins, 0, 2 * SURFACE_SLOTS);
+        into.recent = t.recent[slot];
+        into.recentCount = t.recentCount[slot];
+        into.decayedLow = t.decayed[slot * 2];
+        into.decayedHigh = t.decayed[slot * 2 + 1];
+        into.decayedAt = t.decayedAt[slot];
+        return true;
+    }
+    
+    /** The slot holding {@code key}, or {@code -(insertion slot) - 1} if it is absent. */
+    private static int find(Table t, long key) {
+        int slot = (int) mix(key) & t.mask;
+        for (int probes = 0; probes <= t.mask; probes++) {
+            long existing = t.keys[slot];
+            if (existing == key) {
+                return slot;
+            }
+            if (existing == 0) {
+                return -slot - 1;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+        throw new IllegalStateException("Head-to-head table is full");
+    }
+    
+    /** The slot holding {@code predictionId}, or {@code -(insertion slot) - 1} if it is absent. */
+    private static int findCounted(Counted c, long predictionId) {
+        int slot = (int) mix(predictionId) & c.mask;
+        for (int probes = 0; probes <= c.mask; probes++) {
+            long existing = c.ids[slot];
+            if (existing == predictionId) {
+                return slot;
+            }
+            if (existing == 0) {
+                return -slot - 1;
+            }
+            slot = (slot + 1) & c.mask;
+        }
+        throw new IllegalStateException("Counted prediction table is full");
+    }
+    
+    private int totalWins(Reading reading, int side) {
+        int wins = 0;
+        for (int s = 0; s < SURFACE_SLOTS; s++) {
+            wins += reading.wins[side * SURFACE_SLOTS + s];
+        }
+        return wins;
+    }
+    
+    private int recentWins(Reading reading, int side) {
+        int lowerWins = Long.bitCount(reading.recent);
+        return side == 0 ? lowerWins : reading.recentCount - lowerWins;
+    }
+    
+    /** Both players' decayed scores as of {@code nowMillis}, the given side first. */
+    private double[] decayedScores(Reading reading, int side, long nowMillis) {
+        double factor = Math.exp(-decayPerMilli * Math.max(0, nowMillis - reading.decayedAt));
+        double low = reading.decayedLow * factor;
+        double high = reading.decayedHigh * factor;
+        return side == 0 ? new double[]{low, high} : new double[]{high, low};
+    }
+    
+    private static int surfaceIndex(String surface) {
+        for (int i = 0; i < SURFACES.length; i++) {
+            if (SURFACES[i].equalsIgnoreCase(surface)) {
+                return i;
+            }
+        }
+        return OTHER_SURFACE;
+    }
+    
+    private static boolean validPair(long playerId, long opponentId) {
+        return playerId > 0 && opponentId > 0 && playerId != opponentId
+                && playerId <= Integer.MAX_VALUE && opponentId <= Integer.MAX_VALUE;
+    }
+    
+    /** Order-independent key: lower id in the high 32 bits, never zero for valid ids. */
+    private static long key(long playerId, long opponentId) {
+        return Math.min(playerId, opponentId) << 32 | Math.max(playerId, opponentId);
+    }
+    
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -24,6 +24,7 @@ public class MLServiceClient {
     private long timeout;
     
     private final RestTemplate restTemplate;
+    private final PredictionTracer predictionTracer;
     private volatile boolean mlServiceAvailable = true;
     
     @Retryable(
@@ -32,8 +33,29 @@ public class MLServiceClient {
             backoff = @Backoff(delay = 1000, multiplier = 2)
     )
     public PredictionResponse predictMatch(PredictionRequest request) {
+        return post(mlServiceUrl, request);
+    }
+    
+    @Retryable(
+            retryFor = RestClientException.class,
+            maxAttempts = 3,
+            backoff = @Backoff(delay = 1000, multiplier = 2)
+    )
+    public PredictionResponse predictMatch(String baseUrl, PredictionRequest request) {
+        return post(baseUrl, request);
+    }
+    
+    /** One attempt, no retry or backoff; used by shadow scoring. */
+    public PredictionResponse predictMatchOnce(String baseUrl, PredictionRequest request) {
+        return post(baseUrl, request);
+    }
+    
+    private PredictionResponse post(String baseUrl, PredictionRequest request) {
+        // Only the primary ML service drives the availability flag reported by /health
+        boolean primary = mlServiceUrl.equals(baseUrl);
+        predictionTracer.modelAttempt();
         try {
-            String url = mlServiceUrl + "/api/predict";
+            String url = baseUrl + "/api/predict";
             log.info("Calling ML service: {}", url);
             
             PredictionResponse response = restTemplate.postForObject(
@@ -42,10 +64,14 @@ public class MLServiceClient {
                     PredictionResponse.class
             );
             
-            mlServiceAvailable = true;
+            if (primary) {
+                mlServiceAvailable = true;
+            }
             return response;
         } catch (RestClientException e) {
-            mlServiceAvailable = false;
+            if (primary) {
+                mlServiceAvailable = false;
+            }
             log.error("ML service call failed", e);
             throw e;
         }
@@ -0,0 +1,33 @@
+package com.tennis.service;
+
+import com.tennis.dto.PredictionRequest;
+import com.tennis.dto.PredictionResponse;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A model served by an ml-service deployment at {@code baseUrl}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class MlServicePredictionModel implements PredictionModel {
+    
+    private final String version;
+    private final String baseUrl;
+    private final MLServiceClient mlServiceClient;
+    
+    @Override
+    public Type getType() {
+        return Type.ML_SERVICE;
+    }
+    
+    @Override
+    public PredictionResponse predict(PredictionRequest request) {
+        return mlServiceClient.predictMatch(baseUrl, request);
+    }
+    
+    @Override
+    public PredictionResponse predictOnce(PredictionRequest request) {
+        return mlServiceClient.predictMatchOnce(baseUrl, request);
+    }
+}
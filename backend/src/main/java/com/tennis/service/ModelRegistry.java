@@ -0,0 +1,187 @@
+package com.tennis.service;
+
+import com.tennis.config.ModelRegistryProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the versioned model instances and the current routing: the live model, an
+ * optional canary taking a percentage of traffic, and shadow models scored off the
+ * response path. Routing is an immutable snapshot swapped atomically, so a hot swap never
+ * blocks or pauses in-flight requests; they simply finish on the snapshot they started with.
+ *
+ * An ML model's base URL must name a host from {@code model-registry.allowed-hosts} or one
+ * of the configured models, so the unauthenticated registration endpoint cannot point live
+ * traffic at an arbitrary server. Routing only resolves registered models.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ModelRegistry {
+    
+    private final ModelRegistryProperties properties;
+    private final MLServiceClient mlServiceClient;
+    private final RuleEngine ruleEngine;
+    
+    private final Map<String, PredictionModel> models = new ConcurrentHashMap<>();
+    private final AtomicReference<Routing> routing = new AtomicReference<>();
+    private final Set<String> allowedHosts = ConcurrentHashMap.newKeySet();
+    
+    public record Routing(PredictionModel live, PredictionModel canary, int canaryPercent,
+                          List<PredictionModel> shadows) {
+        
+        public PredictionModel select() {
+            if (canary != null && ThreadLocalRandom.current().nextInt(100) < canaryPercent) {
+                return canary;
+            }
+            return live;
+        }
+    }
+    
+    @PostConstruct
+    public void init() {
+        for (String host : properties.getAllowedHosts()) {
+            if (!host.isBlank()) {
+                allowedHosts.add(host.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        for (ModelRegistryProperties.ModelDefinition definition : properties.getModels()) {
+            if (definition.getBaseUrl() != null) {
+                String host = URI.create(definition.getBaseUrl()).getHost();
+                if (host != null) {
+                    allowedHosts.add(host.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        for (ModelRegistryProperties.ModelDefinition definition : properties.getModels()) {
+            register(definition.getVersion(), definition.getType(), definition.getBaseUrl());
+        }
+        updateRouting(properties.getLive(), properties.getCanary(), properties.getCanaryPercent(),
+                properties.getShadows());
+    }
+    
+    public Routing getRouting() {
+        return routing.get();
+    }
+    
+    public PredictionModel register(String version, PredictionModel.Type type, String baseUrl) {
+        PredictionModel model = switch (type) {
+            case ML_SERVICE -> {
+                if (baseUrl == null || baseUrl.isBlank()) {
+                    throw new IllegalArgumentException("Base URL is required for ML service models");
+                }
+                checkBaseUrl(baseUrl);
+                yield new MlServicePredictionModel(version, baseUrl, mlServiceClient);
+            }
+            case RULE_ENGINE -> new RuleEnginePredictionModel(version, ruleEngine);
+        };
+        
+        if (models.putIfAbsent(version, model) != null) {
+            throw new IllegalArgumentException("Model version already registered: " + version);
+        }
+        log.info("Registered model {} ({})", version, type);
+        return model;
+    }
+    
+    public synchronized void unregister(String version) {
+        Routing current = routing.get();
+        if (current != null && (isVersion(current.live(), version) || isVersion(current.canary(), version)
+                || current.shadows().stream().anyMatch(m -> isVersion(m, version)))) {
+            throw new IllegalArgumentException("Model " + version + " is still routed; update the routing first");
+        }
+        if (models.remove(version) == null) {
+            throw new IllegalArgumentException("Unknown model version: " + version);
+        }
+        log.info("Unregistered model {}", version);
+    }
+    
+    /** Validates the new routing completely before publishing it in one atomic swap. */
+    public synchronized Routing updateRouting(String live, String canary, int canaryPercent, List<String> shadows) {
+        if (canaryPercent < 0 || canaryPercent > 100) {
+            throw new IllegalArgumentException("Canary percent must be between 0 and 100");
+        }
+        
+        PredictionModel liveModel = resolve(live);
+        PredictionModel canaryModel = canary == null || canary.isBlank() ? null : resolve(canary);
+        List<PredictionModel> shadowModels = new ArrayList<>();
+        if (shadows != null) {
+            for (String shadow : shadows) {
+                shadowModels.add(resolve(shadow));
+            }
+        }
+        
+        Routing next = new Routing(liveModel, canaryModel, canaryModel == null ? 0 : canaryPercent,
+                List.copyOf(shadowModels));
+        Routing previous = routing.getAndSet(next);
+        log.info("Model routing updated: live={}, canary={} ({}%), shadows={} (was live={})",
+                live, canary, next.canaryPercent(), shadows,
+                previous != null ? previous.live().getVersion() : null);
+        return next;
+    }
+    
+    public Map<String, Object> describe() {
+        Routing current = routing.get();
+        
+        List<Map<String, Object>> registered = new ArrayList<>();
+        for (PredictionModel model : models.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("version", model.getVersion());
+            entry.put("type", model.getType());
+            if (model instanceof MlServicePredictionModel mlModel) {
+                entry.put("base_url", mlModel.getBaseUrl());
+            }
+            registered.add(entry);
+        }
+        
+        Map<String, Object> description = new HashMap<>();
+        description.put("models", registered);
+        description.put("live", current.live().getVersion());
+        description.put("canary", current.canary() != null ? current.canary().getVersion() : null);
+        description.put("canary_percent", current.canaryPercent());
+        description.put("shadows", current.shadows().stream().map(PredictionModel::getVersion).toList());
+        return description;
+    }
+    
+    private void checkBaseUrl(String baseUrl) {
+        URI uri;
+        try {
+            uri = URI.create(baseUrl);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid base URL: " + baseUrl);
+        }
+        String scheme = uri.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            throw new IllegalArgumentException("Base URL must be http or https: " + baseUrl);
+        }
+        if (uri.getHost() == null || uri.getUserInfo() != null
+                || !allowedHosts.contains(uri.getHost().toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Base URL host is not allowed: " + baseUrl);
+        }
+    }
+    
+    private PredictionModel resolve(String version) {
+        PredictionModel model = version != null ? models.get(version) : null;
+        if (model == null) {
+            throw new IllegalArgumentException("Unknown model version: " + version);
+        }
+        return model;
+    }
+    
+    private boolean isVersion(PredictionModel model, String version) {
+        return model != null && model.getVersion().equals(version);
+    }
+}
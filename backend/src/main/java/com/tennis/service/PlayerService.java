@@ -18,6 +18,7 @@ import java.util.Optional;
 public class PlayerService {
     
     private final PlayerRepository playerRepository;
+    private final PlayerSnapshotService playerSnapshotService;
     
     public List<Player> searchPlayers(String query) {
         log.info("Searching players with query: {}", query);
@@ -25,13 +26,17 @@ public class PlayerService {
     }
     
     public PlayerStatsDto getPlayerStats(Long id) {
-        return playerRepository.findById(id)
+        Optional<Player> player = playerSnapshotService.current()
+                .map(snapshot -> snapshot.byId().get(id));
+        return player.or(() -> playerRepository.findById(id))
                 .map(this::mapToStatsDto)
                 .orElseThrow(() -> new RuntimeException("Player not found"));
     }
     
     public List<Player> getTopPlayers(int limit) {
-        return playerRepository.findTopByLimit(limit);
+        return playerSnapshotService.current()
+                .map(snapshot -> snapshot.top(limit))
+                .orElseGet(() -> playerRepository.findTopByLimit(limit));
     }
     
     private PlayerStatsDto mapToStatsDto(Player player) {
@@ -0,0 +1,149 @@
+package com.tennis.service;
+
+import com.tennis.entity.Player;
+import com.tennis.repository.PlayerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory view of all players and their ranking order. A refresh builds a
+ * complete new snapshot and publishes it with a single reference swap, so readers see
+ * either the previous ranking or the new one, never a mix. Fully reloaded at startup by
+ * {@code WarmUpRunner} before readiness, and after a ranking import on any node; a write
+ * to individual players reported by another node reloads just those rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlayerSnapshotService implements CacheInvalidationListener {
+    
+    private static final String ALL_PLAYERS_KEY = "players:all";
+    private static final String PLAYER_PREFIX = "player:";
+    
+    private final PlayerRepository playerRepository;
+    
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    
+    public record Snapshot(List<Player> byRank, Map<Long, Player> byId, Map<String, Player> byName, long loadedAt) {
+        
+        public List<Player> top(int limit) {
+            return byRank.subList(0, Math.min(Math.max(limit, 0), byRank.size()));
+        }
+        
+        /** Case-insensitive lookup by player name; a name spelled as stored resolves without allocating. */
+        public Player named(String name) {
+            if (name == null) {
+                return null;
+            }
+            Player player = byName.get(name);
+            return player != null ? player : byName.get(normalize(name));
+        }
+    }
+    
+    /** The current snapshot, or empty if none has been loaded yet. */
+    public Optional<Snapshot> current() {
+        return Optional.ofNullable(snapshot.get());
+    }
+    
+    public synchronized void refresh() {
+        try {
+            long start = System.currentTimeMillis();
+            List<Player> players = playerRepository.findAll(Sort.by("rank"));
+            publish(players);
+            log.info("Player snapshot published: {} players in {} ms",
+                    players.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Failed to refresh player snapshot, keeping the previous one", e);
+        }
+    }
+    
+    /** Reloads only the given players into a new snapshot; ids no longer in the table are dropped. */
+    public synchronized void refreshPlayers(Collection<Long> ids) {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            refresh();
+            return;
+        }
+        try {
+            Map<Long, Player> players = new HashMap<>(current.byId());
+            ids.forEach(players::remove);
+            playerRepository.findAllById(ids).forEach(player -> players.put(player.getId(), player));
+            publish(List.copyOf(players.values()));
+            log.debug("Player snapshot republished with {} reloaded players", ids.size());
+        } catch (Exception e) {
+            log.warn("Failed to reload players {}, keeping the previous snapshot", ids, e);
+        }
+    }
+    
+    private void publish(List<Player> players) {
+        List<Player> byRank = players.stream()
+                .filter(p -> p.getRank() != null)
+                .sorted(Comparator.comparing(Player::getRank))
+                .toList();
+        Map<Long, Player> byId = players.stream()
+                .collect(Collectors.toUnmodifiableMap(Player::getId, Function.identity()));
+        // Ranked players first, so a shared name resolves to the better-ranked player
+        Map<String, Player> byName = new HashMap<>();
+        for (List<Player> source : List.of(byRank, players)) {
+            for (Player player : source) {
+                if (player.getName() != null) {
+                    byName.putIfAbsent(normalize(player.getName()), player);
+                }
+            }
+        }
+        // Stored spellings too, resolving exactly as their normalized form does
+        for (Player player : players) {
+            if (player.getName() != null) {
+                byName.putIfAbsent(player.getName(), byName.get(normalize(player.getName())));
+            }
+        }
+        
+        snapshot.set(new Snapshot(byRank, byId, Map.copyOf(byName), System.currentTimeMillis()));
+    }
+    
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    @Override
+    public void onInvalidate(Set<String> keys) {
+        if (keys.contains(ALL_PLAYERS_KEY)) {
+            refresh();
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String key : keys) {
+            if (key.startsWith(PLAYER_PREFIX)) {
+                try {
+                    ids.add(Long.valueOf(key.substring(PLAYER_PREFIX.length())));
+                } catch (NumberFormatException e) {
+                    refresh();
+                    return;
+                }
+            }
+        }
+        if (!ids.isEmpty()) {
+            refreshPlayers(ids);
+        }
+    }
+    
+    @Override
+    public void onResync() {
+        refresh();
+    }
+}
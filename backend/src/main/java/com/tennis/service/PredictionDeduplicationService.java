@@ -0,0 +1,221 @@
+package com.tennis.service;
+
+import com.tennis.dto.PredictionRequest;
+import com.tennis.dto.PredictionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses duplicate prediction requests. Concurrent requests for the same canonical
+ * matchup share one in-flight call to {@link PredictionService#predictMatch}, and a request
+ * carrying an {@code Idempotency-Key} that has already completed is answered from a
+ * bounded, time-expiring store without touching the ML service or the database. Stored
+ * keys are scoped to the client that sent them, so two clients cannot collide on a key.
+ */
+@Slf4j
+@Service
+public class PredictionDeduplicationService {
+    
+    private final PredictionService predictionService;
+    private final PredictionTracer predictionTracer;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long followerTimeoutMillis;
+    
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, StoredResponse> completed = new LinkedHashMap<>();
+    
+    public PredictionDeduplicationService(
+            PredictionService predictionService,
+            PredictionTracer predictionTracer,
+            @Value("${idempotency.ttl-ms:3600000}") long ttlMillis,
+            @Value("${idempotency.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.follower-timeout-ms:60000}") long followerTimeoutMillis) {
+        this.predictionService = predictionService;
+        this.predictionTracer = predictionTracer;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.followerTimeoutMillis = followerTimeoutMillis;
+    }
+    
+    public PredictionResponse predict(String clientKey, String idempotencyKey, PredictionRequest request) {
+        long start = System.nanoTime();
+        Matchup matchup = Matchup.of(request);
+        String storeKey = idempotencyKey == null ? null : clientKey + " " + idempotencyKey;
+        
+        if (storeKey != null) {
+            StoredResponse stored = lookup(storeKey);
+            if (stored != null) {
+                if (!stored.matchupKey().equals(matchup.key())) {
+                    throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+                }
+                log.debug("Replaying stored prediction for Idempotency-Key {}", idempotencyKey);
+                predictionTracer.recordCacheHit(start, stored.response());
+                return orient(stored.response(), stored.reversed() != matchup.reversed());
+            }
+        }
+        
+        PredictionResponse response = singleFlight(matchup, request, start);
+        
+        if (storeKey != null && response.getId() != null) {
+            store(storeKey, new StoredResponse(matchup.key(), matchup.reversed(), response,
+                    System.currentTimeMillis() + ttlMillis));
+        }
+        return response;
+    }
+    
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+    
+    private PredictionResponse singleFlight(Matchup matchup, PredictionRequest request, long start) {
+        Flight mine = new Flight(new CompletableFuture<>(), matchup.reversed());
+        Flight leader = inFlight.putIfAbsent(matchup.key(), mine);
+        
+        if (leader != null) {
+            log.debug("Joining in-flight prediction for {}", matchup.key());
+            PredictionResponse shared = await(leader.result());
+            predictionTracer.recordCacheHit(start, shared);
+            return orient(shared, leader.reversed() != matchup.reversed());
+        }
+        
+        try {
+            PredictionResponse response = predictionService.predictMatch(request);
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(matchup.key(), mine);
+        }
+    }
+    
+    private PredictionResponse await(CompletableFuture<PredictionResponse> result) {
+        try {
+            return result.get(followerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shared prediction failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for shared prediction", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for shared prediction", e);
+        }
+    }
+    
+    private StoredResponse lookup(String idempotencyKey) {
+        synchronized (completed) {
+            StoredResponse stored = completed.get(idempotencyKey);
+            if (stored != null && stored.expiresAt() < System.currentTimeMillis()) {
+                completed.remove(idempotencyKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+    
+    private void store(String idempotencyKey, StoredResponse stored) {
+        synchronized (completed) {
+            completed.put(idempotencyKey, stored);
+            
+            // Entries share one TTL, so insertion order is also expiry order
+            long now = System.currentTimeMillis();
+            Iterator<StoredResponse> it = completed.values().iterator();
+            while (it.hasNext()) {
+                StoredResponse oldest = it.next();
+                if (completed.size() <= maxEntries && oldest.expiresAt() >= now) {
+                    break;
+                }
+                it.remove();
+            }
+        }
+    }
+    
+    /** Swaps the player sides when the caller listed the players the other way round. */
+    private PredictionResponse orient(PredictionResponse response, boolean mirror) {
+        if (!mirror) {
+            return response;
+        }
+        return PredictionResponse.builder()
+                .id(response.getId())
+                .player1Name(response.getPlayer2Name())
+                .player2Name(response.getPlayer1Name())
+                .player1WinProb(response.getPlayer2WinProb())
+                .player2WinProb(response.getPlayer1WinProb())
+                .predictedWinner(response.getPredictedWinner())
+                .confidence(response.getConfidence())
+                .confidenceLevel(response.getConfidenceLevel())
+                .recommendation(response.getRecommendation())
+                .keyFactors(response.getKeyFactors())
+                .tournament(response.getTournament())
+                .surface(response.getSurface())
+                .actualWinner(response.getActualWinner())
+                .correct(response.getCorrect())
+                .modelVersion(response.getModelVersion())
+                .createdAt(response.getCreatedAt())
+                .build();
+    }
+    
+    private record Flight(CompletableFuture<PredictionResponse> result, boolean reversed) {
+    }
+    
+    private record StoredResponse(String matchupKey, boolean reversed, PredictionResponse response, long expiresAt) {
+    }
+    
+    /**
+     * Order-independent identity of a request: both player sides (name plus the stats and
+     * caller-supplied head-to-head features that feed the model), the surface and the
+     * tournament.
+     */
+    private record Matchup(String key, boolean reversed) {
+        
+        static Matchup of(PredictionRequest request) {
+            Integer recent = request.getH2hRecentMatches();
+            Integer recent1 = request.getH2hRecentPlayer1Wins();
+            Double share1 = request.getH2hDecayedPlayer1Share();
+            
+            String side1 = side(request.getPlayer1Name(), request.getPlayer1Rank(),
+                    request.getPlayer1Points(), request.getPlayer1WinPctCareer())
+                    + h2h(request.getH2hPlayer1Wins(), request.getH2hSurfacePlayer1Wins(), recent1, share1);
+            String side2 = side(request.getPlayer2Name(), request.getPlayer2Rank(),
+                    request.getPlayer2Points(), request.getPlayer2WinPctCareer())
+                    + h2h(request.getH2hPlayer2Wins(), request.getH2hSurfacePlayer2Wins(),
+                    recent == null || recent1 == null ? null : recent - recent1,
+                    share1 == null ? null : 1 - share1);
+            boolean reversed = side1.compareTo(side2) > 0;
+            
+            String key = (reversed ? side2 + "|" + side1 : side1 + "|" + side2)
+                    + "|" + normalize(request.getSurface())
+                    + "|" + normalize(request.getTournament())
+                    + "|" + recent;
+            return new Matchup(key, reversed);
+        }
+        
+        private static String side(String name, Integer rank, Long points, Double winPct) {
+            return normalize(name) + "#" + rank + "#" + points + "#" + winPct;
+        }
+        
+        private static String h2h(Integer wins, Integer surfaceWins, Integer recentWins, Double decayedShare) {
+            return "#" + wins + "#" + surfaceWins + "#" + recentWins + "#" + decayedShare;
+        }
+        
+        private static String normalize(String value) {
+            return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.tennis.service;
+
+import com.tennis.dto.PredictionResponse;
+import com.tennis.event.PredictionEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-Sent Events feed of created and settled predictions.
+ *
+ * Every event gets a monotonically increasing id. The last {@code replaySize} events are
+ * retained so a reconnecting client can resume from its {@code Last-Event-ID}. Each
+ * subscriber has its own bounded buffer; when a slow client falls behind the oldest
+ * events are dropped and a {@code resync} event tells it to re-read the history endpoint.
+ * A client whose socket stops accepting writes for {@code send-timeout} is unsubscribed,
+ * and its blocked send fails on its own dispatcher thread once the connector's write
+ * timeout ({@code server.tomcat.connection-timeout}) passes.
+ */
+@Slf4j
+@Service
+public class PredictionFeedService {
+    
+    static final String EVENT_CREATED = "created";
+    static final String EVENT_SETTLED = "settled";
+    static final String EVENT_RESYNC = "resync";
+    static final String RESYNC_BUFFER_OVERFLOW = "buffer_overflow";
+    static final String RESYNC_REPLAY_EXPIRED = "replay_expired";
+    
+    private final int bufferSize;
+    private final long emitterTimeout;
+    private final long sendTimeoutNanos;
+    private final FeedEvent[] replay;
+    private long sequence;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    
+    public PredictionFeedService(
+            @Value("${prediction-feed.buffer-size:256}") int bufferSize,
+            @Value("${prediction-feed.replay-size:1024}") int replaySize,
+            @Value("${prediction-feed.timeout:1800000}") long emitterTimeout,
+            @Value("${prediction-feed.dispatcher-threads:4}") int dispatcherThreads,
+            @Value("${prediction-feed.send-timeout:5000}") long sendTimeout) {
+        this.bufferSize = bufferSize;
+        this.emitterTimeout = emitterTimeout;
+        this.sendTimeoutNanos = sendTimeout * 1_000_000;
+        this.replay = new FeedEvent[replaySize];
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads,
+                new CustomizableThreadFactory("prediction-feed-"));
+    }
+    
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        Subscriber subscriber = new Subscriber(emitter);
+        
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        
+        boolean schedule;
+        synchronized (replay) {
+            if (lastEventId != null) {
+                schedule = enqueueBacklog(subscriber, lastEventId);
+            } else {
+                schedule = false;
+            }
+            subscribers.add(subscriber);
+        }
+        
+        log.debug("Prediction feed subscriber added, lastEventId={}, active={}", lastEventId, subscribers.size());
+        if (schedule) {
+            dispatcher.execute(subscriber::drain);
+        }
+        return emitter;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPredictionEvent(PredictionEvent event) {
+        String name = event.getType() == PredictionEvent.Type.CREATED ? EVENT_CREATED : EVENT_SETTLED;
+        
+        synchronized (replay) {
+            FeedEvent feedEvent = new FeedEvent(++sequence, name, event.getPrediction());
+            replay[(int) (feedEvent.id % replay.length)] = feedEvent;
+            
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.offer(feedEvent)) {
+                    dispatcher.execute(subscriber::drain);
+                }
+            }
+        }
+    }
+    
+    @Scheduled(fixedRateString = "${prediction-feed.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offerHeartbeat()) {
+                dispatcher.execute(subscriber::drain);
+            }
+        }
+    }
+    
+    /**
+     * Unsubscribes subscribers stuck in a single send for longer than the send timeout. The
+     * emitter is not touched here: its methods lock the emitter that the blocked send holds,
+     * so closing it would stall the scheduler thread as well.
+     */
+    @Scheduled(fixedDelayString = "${prediction-feed.slow-check-interval:1000}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedAt;
+            if (started != 0 && now - started > sendTimeoutNanos) {
+                log.info("Dropping prediction feed subscriber stalled for {} ms", (now - started) / 1_000_000);
+                subscribers.remove(subscriber);
+                subscriber.discard();
+            }
+        }
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        dispatcher.shutdownNow();
+    }
+    
+    /**
+     * Queues everything after {@code lastEventId} that is still retained. Called with the
+     * replay lock held so no event can slip in between the backlog and live delivery.
+     */
+    private boolean enqueueBacklog(Subscriber subscriber, long lastEventId) {
+        long oldestRetained = Math.max(1, sequence - replay.length + 1);
+        
+        if (lastEventId > sequence || lastEventId < oldestRetained - 1) {
+            subscriber.requestResync(RESYNC_REPLAY_EXPIRED);
+            return true;
+        }
+        
+        boolean schedule = false;
+        for (long id = lastEventId + 1; id <= sequence; id++) {
+            schedule |= subscriber.offer(replay[(int) (id % replay.length)]);
+        }
+        return schedule;
+    }
+    
+    private record FeedEvent(long id, String name, PredictionResponse prediction) {
+    }
+    
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayDeque<FeedEvent> buffer = new ArrayDeque<>();
+        private String resyncReason;
+        private boolean heartbeat;
+        private boolean draining;
+        private boolean discarded;
+        // nanoTime when the in-progress send started, 0 while idle
+        private volatile long sendStartedAt;
+        
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        /** Returns true when the caller must schedule a drain. */
+        synchronized boolean offer(FeedEvent event) {
+            if (discarded) {
+                return false;
+            }
+            if (buffer.size() >= bufferSize) {
+                buffer.pollFirst();
+                if (resyncReason == null) {
+                    resyncReason = RESYNC_BUFFER_OVERFLOW;
+                }
+            }
+            buffer.addLast(event);
+            return claimDrain();
+        }
+        
+        synchronized boolean offerHeartbeat() {
+            if (discarded) {
+                return false;
+            }
+            heartbeat = true;
+            return claimDrain();
+        }
+        
+        /** Drops everything queued; the dispatcher closes the emitter once its send returns. */
+        synchronized void discard() {
+            discarded = true;
+            buffer.clear();
+            resyncReason = null;
+            heartbeat = false;
+        }
+        
+        synchronized void requestResync(String reason) {
+            resyncReason = reason;
+            draining = true;
+        }
+        
+        private boolean claimDrain() {
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+        
+        void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder next;
+                synchronized (this) {
+                    if (discarded) {
+                        draining = false;
+                        next = null;
+                    } else if (resyncReason != null) {
+                        next = SseEmitter.event().name(EVENT_RESYNC).data(Map.of("reason", resyncReason));
+                        resyncReason = null;
+                    } else if (!buffer.isEmpty()) {
+                        FeedEvent event = buffer.pollFirst();
+                        next = SseEmitter.event()
+                                .id(Long.toString(event.id()))
+                                .name(event.name())
+                                .data(event.prediction(), MediaType.APPLICATION_JSON);
+                    } else if (heartbeat) {
+                        heartbeat = false;
+                        next = SseEmitter.event().comment("heartbeat");
+                    } else {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (next == null) {
+                    emitter.complete();
+                    return;
+                }
+                
+                sendStartedAt = System.nanoTime();
+                try {
+                    emitter.send(next);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping prediction feed subscriber: {}", e.getMessage());
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                } finally {
+                    sendStartedAt = 0;
+                }
+            }
+        }
+    }
+}
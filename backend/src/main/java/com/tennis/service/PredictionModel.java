@@ -0,0 +1,26 @@
+package com.tennis.service;
+
+import com.tennis.dto.PredictionRequest;
+import com.tennis.dto.PredictionResponse;
+
+/**
+ * One versioned model instance held by the {@link ModelRegistry}.
+ */
+public interface PredictionModel {
+    
+    enum Type {
+        ML_SERVICE,
+        RULE_ENGINE
+    }
+    
+    String getVersion();
+    
+    Type getType();
+    
+    PredictionResponse predict(PredictionRequest request);
+    
+    /** A single attempt without retries, for callers that must not hold a thread on backoff. */
+    default PredictionResponse predictOnce(PredictionRequest request) {
+        return predict(request);
+    }
+}
@@ -3,9 +3,11 @@ package com.tennis.service;
 import com.tennis.dto.PredictionRequest;
 import com.tennis.dto.PredictionResponse;
 import com.tennis.entity.MatchPrediction;
-import com.tennis.repository.MatchPredictionRepository;
+import com.tennis.event.PredictionEvent;
+import com.tennis.repository.PredictionStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -21,32 +23,71 @@ import java.util.stream.Collectors;
 @Transactional
 public class PredictionService {
     
-    private final MLServiceClient mlServiceClient;
+    private final ModelRegistry modelRegistry;
     private final RuleEngine ruleEngine;
     private final ValidationService validationService;
-    private final MatchPredictionRepository predictionRepository;
+    private final PredictionStore predictionStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PredictionTracer predictionTracer;
+    private final HeadToHeadIndex headToHeadIndex;
     
     public PredictionResponse predictMatch(PredictionRequest request) {
-        log.info("Processing prediction: {} vs {}", request.getPlayer1Name(), request.getPlayer2Name());
-        
+        PredictionTracer.Trace trace = predictionTracer.start();
+        try {
+            log.info("Processing prediction: {} vs {}", request.getPlayer1Name(), request.getPlayer2Name());
+            // The live model, or the canary for its share of traffic
+            PredictionResponse prediction = score(request, trace, modelRegistry.getRouting().select(), false);
+            
+            // Save to database
+            savePrediction(prediction, request);
+            trace.mark(PredictionTracer.Stage.INSERT);
+            
+            predictionTracer.finish(trace, prediction);
+            return prediction;
+        } finally {
+            // A stage that throws must not leave the thread's trace active
+            predictionTracer.end(trace);
+        }
+    }
+    
+    /**
+     * Every stage of {@link #predictMatch} except the insert and its events, scored by
+     * {@code model}, untraced and with a single model attempt. Used by warm-up, which must
+     * exercise the real path without keeping rows, consuming ids or waiting out retry backoff.
+     */
+    @Transactional(readOnly = true)
+    public PredictionResponse predictWithoutSaving(PredictionRequest request, PredictionModel model) {
+        return score(request, predictionTracer.detached(), model, true);
+    }
+    
+    private PredictionResponse score(PredictionRequest request, PredictionTracer.Trace trace,
+                                     PredictionModel model, boolean singleAttempt) {
         // Validate input
         validationService.validatePredictionRequest(request);
+        trace.mark(PredictionTracer.Stage.VALIDATION);
+        
+        headToHeadIndex.enrich(request);
+        trace.mark(PredictionTracer.Stage.FEATURES);
         
-        // Call ML service
         PredictionResponse prediction;
         try {
-            prediction = mlServiceClient.predictMatch(request);
+            prediction = singleAttempt ? model.predictOnce(request) : model.predict(request);
+            prediction.setModelVersion(model.getVersion());
+            trace.mark(PredictionTracer.Stage.MODEL);
+            trace.engine(model.getType());
         } catch (Exception e) {
-            log.warn("ML service failed, using rule engine", e);
+            trace.mark(PredictionTracer.Stage.MODEL);
+            log.warn("Model {} failed, using rule engine", model.getVersion(), e);
             prediction = ruleEngine.generatePrediction(request);
             prediction.setConfidenceLevel("LOW");
+            prediction.setModelVersion(RuleEngine.FALLBACK_VERSION);
+            trace.mark(PredictionTracer.Stage.FALLBACK);
+            trace.engine(PredictionModel.Type.RULE_ENGINE);
         }
         
         // Calculate additional metrics
         enrichPrediction(prediction);
-        
-        // Save to database
-        savePrediction(prediction, request);
+        trace.mark(PredictionTracer.Stage.ENRICHMENT);
         
         return prediction;
     }
@@ -57,15 +98,33 @@ public class PredictionService {
                 .collect(Collectors.toList());
     }
     
+    public PredictionResponse recordResult(Long id, String actualWinner) {
+        MatchPrediction entity = predictionStore.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Prediction not found: " + id));
+        
+        if (!actualWinner.equalsIgnoreCase(entity.getPlayer1Name())
+                && !actualWinner.equalsIgnoreCase(entity.getPlayer2Name())) {
+            throw new IllegalArgumentException("Actual winner must be one of the predicted players");
+        }
+        
+        entity.setActualWinner(actualWinner);
+        entity.setCorrect(actualWinner.equalsIgnoreCase(entity.getPredictedWinner()));
+        predictionStore.save(entity);
+        
+        PredictionResponse response = mapToResponse(entity);
+        eventPublisher.publishEvent(new PredictionEvent(PredictionEvent.Type.SETTLED, response));
+        return response;
+    }
+    
     @Transactional(readOnly = true)
     public Page<PredictionResponse> getPredictionHistory(Pageable pageable) {
-        return predictionRepository.findAll(pageable)
+        return predictionStore.findAll(pageable)
                 .map(this::mapToResponse);
     }
     
     @Transactional(readOnly = true)
     public List<PredictionResponse> getPredictionsByTournament(String tournament) {
-        return predictionRepository.findByTournament(tournament).stream()
+        return predictionStore.findByTournament(tournament).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -115,8 +174,10 @@ public class PredictionService {
                     .createdAt(LocalDateTime.now())
                     .build();
             
-            predictionRepository.save(entity);
+            predictionStore.save(entity);
             prediction.setId(entity.getId());
+            prediction.setCreatedAt(entity.getCreatedAt());
+            eventPublisher.publishEvent(new PredictionEvent(PredictionEvent.Type.CREATED, prediction, request));
         } catch (Exception e) {
             log.warn("Failed to save prediction to database", e);
         }
@@ -133,6 +194,8 @@ public class PredictionService {
                 .confidence(entity.getConfidence())
                 .tournament(entity.getTournament())
                 .surface(entity.getSurface())
+                .actualWinner(entity.getActualWinner())
+                .correct(entity.getCorrect())
                 .createdAt(entity.getCreatedAt())
                 .build();
     }
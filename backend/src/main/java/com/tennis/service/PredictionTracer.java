@@ -0,0 +1,255 @@
+package com.tennis.service;
+
+import com.tennis.dto.PredictionResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-stage timing for {@link PredictionService#predictMatch}. Each request thread reuses
+ * one {@link Trace}, so tracing a request is a handful of {@code nanoTime} reads and
+ * histogram increments with no allocation. Stage latencies and request totals (tagged by
+ * the engine that produced the answer, ML service or rule engine, and cache hit vs miss)
+ * are published as actuator metrics and in
+ * {@code /api/system/stats}. A sample of requests slower than the threshold is logged with
+ * the full stage breakdown and kept in a small ring for the stats endpoint.
+ */
+@Slf4j
+@Service
+public class PredictionTracer {
+    
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final Stage[] STAGES = Stage.values();
+    
+    public enum Stage {
+        VALIDATION, FEATURES, MODEL, FALLBACK, ENRICHMENT, INSERT
+    }
+    
+    private enum Path {
+        ML, RULE_ENGINE
+    }
+    
+    private final LatencyHistogram[] stages = new LatencyHistogram[Stage.values().length];
+    // Indexed by [path][cache hit ? 1 : 0]
+    private final LatencyHistogram[][] totals = new LatencyHistogram[Path.values().length][2];
+    private final LongAdder modelAttempts = new LongAdder();
+    // Engine per model version, learned from traced requests so replayed answers are tagged alike
+    private final Map<String, Path> pathByVersion = new ConcurrentHashMap<>();
+    private final ThreadLocal<Trace> traces = ThreadLocal.withInitial(Trace::new);
+    
+    private final long slowThresholdNanos;
+    private final double slowSampleRate;
+    private final AtomicReferenceArray<Map<String, Object>> slowRequests;
+    private final AtomicLong slowRequestIndex = new AtomicLong();
+    
+    public PredictionTracer(MeterRegistry meterRegistry,
+                            @Value("${prediction-tracing.slow-threshold-ms:1000}") long slowThresholdMillis,
+                            @Value("${prediction-tracing.slow-sample-rate:0.1}") double slowSampleRate,
+                            @Value("${prediction-tracing.slow-log-size:50}") int slowLogSize) {
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000;
+        this.slowSampleRate = slowSampleRate;
+        this.slowRequests = new AtomicReferenceArray<>(slowLogSize);
+        
+        for (Stage stage : STAGES) {
+            stages[stage.ordinal()] = new LatencyHistogram();
+            register(meterRegistry, "prediction.stage.latency", stages[stage.ordinal()],
+                    "stage", stage.name().toLowerCase());
+        }
+        for (Path path : Path.values()) {
+            for (int hit = 0; hit < 2; hit++) {
+                totals[path.ordinal()][hit] = new LatencyHistogram();
+                register(meterRegistry, "prediction.latency", totals[path.ordinal()][hit],
+                        "path", path.name().toLowerCase(), "cache", hit == 1 ? "hit" : "miss");
+            }
+        }
+        FunctionCounter.builder("prediction.ml.attempts", modelAttempts, LongAdder::sum)
+                .description("ML service calls including retries, for traced live requests")
+                .register(meterRegistry);
+    }
+    
+    /** Timing state for the request on the current thread; reused across requests. */
+    public static final class Trace {
+        private final long[] stageNanos = new long[Stage.values().length];
+        private int stagesRun;
+        private long start;
+        private long last;
+        private int attempts;
+        private boolean active;
+        private Path path;
+        
+        private void reset() {
+            start = System.nanoTime();
+            last = start;
+            stagesRun = 0;
+            attempts = 0;
+            active = true;
+            path = Path.ML;
+        }
+        
+        /** Records which engine produced the answer for this request. */
+        public void engine(PredictionModel.Type type) {
+            path = type == PredictionModel.Type.RULE_ENGINE ? Path.RULE_ENGINE : Path.ML;
+        }
+        
+        /** Ends the given stage: everything since the previous mark is charged to it. */
+        public void mark(Stage stage) {
+            long now = System.nanoTime();
+            int bit = 1 << stage.ordinal();
+            if ((stagesRun & bit) == 0) {
+                stageNanos[stage.ordinal()] = 0;
+                stagesRun |= bit;
+            }
+            stageNanos[stage.ordinal()] += now - last;
+            last = now;
+        }
+    }
+    
+    public Trace start() {
+        Trace trace = traces.get();
+        trace.reset();
+        return trace;
+    }
+    
+    /** A trace that is never recorded, for running the prediction stages outside a request. */
+    public Trace detached() {
+        return new Trace();
+    }
+    
+    /**
+     * Counts an ML service attempt against the request being traced on this thread. Calls made
+     * outside a trace, such as shadow scoring, are not counted.
+     */
+    public void modelAttempt() {
+        Trace trace = traces.get();
+        if (trace.active) {
+            trace.attempts++;
+            modelAttempts.increment();
+        }
+    }
+    
+    public void finish(Trace trace, PredictionResponse prediction) {
+        long total = trace.last - trace.start;
+        trace.active = false;
+        for (Stage stage : STAGES) {
+            if ((trace.stagesRun & (1 << stage.ordinal())) != 0) {
+                stages[stage.ordinal()].record(trace.stageNanos[stage.ordinal()]);
+            }
+        }
+        Path path = trace.path;
+        if (prediction.getModelVersion() != null && pathByVersion.get(prediction.getModelVersion()) != path) {
+            pathByVersion.put(prediction.getModelVersion(), path);
+        }
+        totals[path.ordinal()][0].record(total);
+        
+        if (total >= slowThresholdNanos && ThreadLocalRandom.current().nextDouble() < slowSampleRate) {
+            recordSlowRequest(trace, total, path, prediction);
+        }
+    }
+    
+    /** Ends a trace without recording it, for a request that failed part-way; a no-op after finish. */
+    public void end(Trace trace) {
+        trace.active = false;
+    }
+    
+    /** A request answered from the idempotency store or by joining an in-flight prediction. */
+    public void recordCacheHit(long startNanos, PredictionResponse prediction) {
+        totals[path(prediction).ordinal()][1].record(System.nanoTime() - startNanos);
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stageStats = new LinkedHashMap<>();
+        for (Stage stage : STAGES) {
+            stageStats.put(stage.name().toLowerCase(), summary(stages[stage.ordinal()]));
+        }
+        Map<String, Object> totalStats = new LinkedHashMap<>();
+        for (Path path : Path.values()) {
+            totalStats.put(path.name().toLowerCase() + "_cache_miss", summary(totals[path.ordinal()][0]));
+            totalStats.put(path.name().toLowerCase() + "_cache_hit", summary(totals[path.ordinal()][1]));
+        }
+        
+        List<Map<String, Object>> slow = new ArrayList<>();
+        for (int i = 0; i < slowRequests.length(); i++) {
+            Map<String, Object> entry = slowRequests.get(i);
+            if (entry != null) {
+                slow.add(entry);
+            }
+        }
+        slow.sort((a, b) -> ((String) b.get("timestamp")).compareTo((String) a.get("timestamp")));
+        
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("stages", stageStats);
+        stats.put("totals", totalStats);
+        stats.put("ml_attempts", modelAttempts.sum());
+        stats.put("slow_requests", slow);
+        return stats;
+    }
+    
+    private void recordSlowRequest(Trace trace, long total, Path path, PredictionResponse prediction) {
+        Map<String, Object> stageMillis = new LinkedHashMap<>();
+        for (Stage stage : STAGES) {
+            if ((trace.stagesRun & (1 << stage.ordinal())) != 0) {
+                stageMillis.put(stage.name().toLowerCase(), trace.stageNanos[stage.ordinal()] / 1_000_000.0);
+            }
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("timestamp", Instant.now().toString());
+        entry.put("player1_name", prediction.getPlayer1Name());
+        entry.put("player2_name", prediction.getPlayer2Name());
+        entry.put("path", path.name().toLowerCase());
+        entry.put("ml_attempts", trace.attempts);
+        entry.put("total_ms", total / 1_000_000.0);
+        entry.put("stages_ms", stageMillis);
+        
+        int slot = (int) (slowRequestIndex.getAndIncrement() % slowRequests.length());
+        slowRequests.set(slot, entry);
+        log.warn("Slow prediction: {}", entry);
+    }
+    
+    private Path path(PredictionResponse prediction) {
+        String version = prediction.getModelVersion();
+        Path path = version == null ? null : pathByVersion.get(version);
+        if (path != null) {
+            return path;
+        }
+        return RuleEngine.FALLBACK_VERSION.equals(version) ? Path.RULE_ENGINE : Path.ML;
+    }
+    
+    private Map<String, Object> summary(LatencyHistogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.count());
+        summary.put("mean_ms", histogram.meanNanos() / 1_000_000.0);
+        summary.put("p50_ms", histogram.percentileNanos(0.5) / 1_000_000.0);
+        summary.put("p99_ms", histogram.percentileNanos(0.99) / 1_000_000.0);
+        summary.put("p999_ms", histogram.percentileNanos(0.999) / 1_000_000.0);
+        summary.put("max_ms", histogram.maxNanos() / 1_000_000.0);
+        return summary;
+    }
+    
+    private void register(MeterRegistry meterRegistry, String name, LatencyHistogram histogram, String... tags) {
+        for (double quantile : QUANTILES) {
+            Gauge.builder(name, histogram, h -> h.percentileNanos(quantile) / 1e9)
+                    .tags(tags)
+                    .tag("quantile", String.valueOf(quantile))
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder(name + ".count", histogram, LatencyHistogram::count)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,255 @@
+package com.tennis.service;
+
+import com.tennis.entity.Player;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk ranking refresh. The CSV is streamed row by row into a temporary staging table
+ * with {@code COPY}, then applied with one set-based UPDATE for existing players and one
+ * INSERT for new ones, all in a single transaction that only touches rows whose values
+ * changed. After commit a fresh {@link PlayerSnapshotService} snapshot is published and
+ * the player ETag versions are bumped on every node.
+ *
+ * Expected header (any column order): {@code rank,name,country,points}; country and
+ * points are optional.
+ */
+@Slf4j
+@Service
+public class RankingImportService {
+    
+    private static final String STAGING_TABLE = "player_ranking_staging";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlayerSnapshotService playerSnapshotService;
+    private final ResourceVersionService resourceVersionService;
+    
+    @Value("${ranking-import.lock-timeout-ms:2000}")
+    private long lockTimeoutMillis;
+    
+    private volatile PlayerTable playerTable;
+    
+    public RankingImportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                EntityManagerFactory entityManagerFactory,
+                                PlayerSnapshotService playerSnapshotService,
+                                ResourceVersionService resourceVersionService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.playerSnapshotService = playerSnapshotService;
+        this.resourceVersionService = resourceVersionService;
+    }
+    
+    /** Physical names of the {@link Player} mapping, read from Hibernate rather than hard-coded. */
+    private record PlayerTable(String table, String name, String country, String rank, String points) {
+    }
+    
+    public Map<String, Object> importRankings(InputStream csv) {
+        long start = System.currentTimeMillis();
+        PlayerTable players = playerTable();
+        
+        int[] counts = transactionTemplate.execute(status -> jdbcTemplate.execute(
+                (ConnectionCallback<int[]>) connection -> applyImport(connection, csv, players)));
+        
+        // Readers switch to the new ranking in one step, only after the data is committed
+        playerSnapshotService.refresh();
+        resourceVersionService.bumpAllPlayers();
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("rows_staged", counts[0]);
+        result.put("players_updated", counts[1]);
+        result.put("players_inserted", counts[2]);
+        result.put("elapsed_ms", System.currentTimeMillis() - start);
+        log.info("Ranking import applied: {}", result);
+        return result;
+    }
+    
+    private int[] applyImport(Connection connection, InputStream csv, PlayerTable players) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL lock_timeout = " + lockTimeoutMillis);
+            statement.execute("CREATE TEMP TABLE " + STAGING_TABLE
+                    + " (name TEXT NOT NULL, country TEXT, rank INTEGER NOT NULL, points BIGINT) ON COMMIT DROP");
+        }
+        
+        int staged;
+        try {
+            staged = copyRows(connection.unwrap(PGConnection.class), csv);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read rankings file: " + e.getMessage(), e);
+        }
+        
+        // One row per player even if the file lists someone twice; the best rank wins
+        String deduplicated = "(SELECT DISTINCT ON (LOWER(name)) name, country, rank, points FROM "
+                + STAGING_TABLE + " ORDER BY LOWER(name), rank)";
+        
+        int updated;
+        int inserted;
+        try (Statement statement = connection.createStatement()) {
+            updated = statement.executeUpdate("UPDATE " + players.table() + " p SET "
+                    + players.rank() + " = s.rank, "
+                    + players.points() + " = COALESCE(s.points, p." + players.points() + "), "
+                    + players.country() + " = COALESCE(s.country, p." + players.country() + ") "
+                    + "FROM " + deduplicated + " s "
+                    + "WHERE LOWER(p." + players.name() + ") = LOWER(s.name) AND ("
+                    + "p." + players.rank() + " IS DISTINCT FROM s.rank "
+                    + "OR (s.points IS NOT NULL AND p." + players.points() + " IS DISTINCT FROM s.points) "
+                    + "OR (s.country IS NOT NULL AND p." + players.country() + " IS DISTINCT FROM s.country))");
+            
+            inserted = statement.executeUpdate("INSERT INTO " + players.table() + " ("
+                    + players.name() + ", " + players.country() + ", " + players.rank() + ", " + players.points() + ") "
+                    + "SELECT s.name, s.country, s.rank, s.points FROM " + deduplicated + " s "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM " + players.table() + " p "
+                    + "WHERE LOWER(p." + players.name() + ") = LOWER(s.name))");
+        }
+        return new int[]{staged, updated, inserted};
+    }
+    
+    private int copyRows(PGConnection connection, InputStream csv) throws SQLException, IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("Rankings file is empty");
+        }
+        Map<String, Integer> header = parseHeader(headerLine);
+        
+        CopyIn copy = connection.getCopyAPI().copyIn(
+                "COPY " + STAGING_TABLE + " (name, country, rank, points) FROM STDIN WITH (FORMAT csv)");
+        int rows = 0;
+        int lineNumber = 1;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                byte[] row = toCopyRow(splitCsv(line), header, lineNumber);
+                copy.writeToCopy(row, 0, row.length);
+                rows++;
+            }
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+        return rows;
+    }
+    
+    private Map<String, Integer> parseHeader(String headerLine) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> columns = splitCsv(headerLine);
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.containsKey("rank") || !header.containsKey("name")) {
+            throw new IllegalArgumentException("Rankings file must have rank and name columns");
+        }
+        return header;
+    }
+    
+    private byte[] toCopyRow(List<String> fields, Map<String, Integer> header, int lineNumber) {
+        String name = field(fields, header, "name");
+        String rank = field(fields, header, "rank");
+        String points = field(fields, header, "points");
+        if (name == null || rank == null) {
+            throw new IllegalArgumentException("Missing name or rank on line " + lineNumber);
+        }
+        try {
+            Integer.parseInt(rank);
+            if (points != null) {
+                Long.parseLong(points);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number on line " + lineNumber);
+        }
+        
+        String row = quote(name) + "," + quote(field(fields, header, "country")) + ","
+                + rank + "," + (points != null ? points : "") + "\n";
+        return row.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private String field(List<String> fields, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    /** Quotes a value for CSV COPY input; an unquoted empty field is NULL. */
+    private String quote(String value) {
+        return value == null ? "" : "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    
+    private List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+    
+    private PlayerTable playerTable() {
+        PlayerTable table = playerTable;
+        if (table == null) {
+            AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getMappingMetamodel()
+                    .getEntityDescriptor(Player.class);
+            table = new PlayerTable(persister.getTableName(),
+                    persister.getPropertyColumnNames("name")[0],
+                    persister.getPropertyColumnNames("country")[0],
+                    persister.getPropertyColumnNames("rank")[0],
+                    persister.getPropertyColumnNames("points")[0]);
+            playerTable = table;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,150 @@
+package com.tennis.service;
+
+import com.tennis.event.PredictionEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory versions for the polled read endpoints, turned into strong ETags so a
+ * conditional GET can be answered with 304 before any repository call. Every write after
+ * commit is published on the {@link CacheInvalidationBus}, and the batch that carries it,
+ * named by its sending node and sequence number, becomes the key's version on every node
+ * that sees it, the sender included. Replicas therefore hand out the same tag for the same
+ * data without any shared counter.
+ *
+ * Until its batch is sent, a local write gets a version no other node can produce; so does
+ * a key with no known write since startup or the last resync. Either can cost a miss but
+ * never a wrong 304, and node ids are random per process, so tags from an earlier run
+ * never match.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResourceVersionService implements CacheInvalidationListener {
+    
+    private static final String HISTORY_KEY = "history";
+    private static final String TOURNAMENT_PREFIX = "tournament:";
+    private static final String PLAYER_PREFIX = "player:";
+    private static final String ALL_PLAYERS_KEY = "players:all";
+    private static final String ANY_PLAYER_KEY = "players:any";
+    
+    private final CacheInvalidationBus cacheInvalidationBus;
+    
+    private final Map<String, String> versions = new ConcurrentHashMap<>();
+    private final AtomicLong localWrites = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    
+    public String getHistoryVersion() {
+        return version(HISTORY_KEY);
+    }
+    
+    public String getTournamentVersion(String tournament) {
+        return version(TOURNAMENT_PREFIX + tournament);
+    }
+    
+    public String getPlayersVersion() {
+        return version(ALL_PLAYERS_KEY) + '+' + version(ANY_PLAYER_KEY);
+    }
+    
+    public String getPlayerVersion(Long playerId) {
+        return version(ALL_PLAYERS_KEY) + '+' + version(PLAYER_PREFIX + playerId);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPredictionEvent(PredictionEvent event) {
+        String tournament = event.getPrediction().getTournament();
+        if (tournament != null) {
+            bump(HISTORY_KEY, TOURNAMENT_PREFIX + tournament);
+        } else {
+            bump(HISTORY_KEY);
+        }
+    }
+    
+    /** Call after a committed change to a single player's row. */
+    public void bumpPlayer(Long playerId) {
+        bump(PLAYER_PREFIX + playerId, ANY_PLAYER_KEY);
+    }
+    
+    /** Call after a committed change that may touch any player, e.g. a ranking refresh. */
+    public void bumpAllPlayers() {
+        bump(ALL_PLAYERS_KEY);
+    }
+    
+    @Override
+    public void onBatch(String node, long sequence, Set<String> keys) {
+        String version = node + '.' + sequence;
+        for (String key : keys) {
+            if (versioned(key)) {
+                // A key queued again since this batch has a newer local write; its own batch follows
+                versions.compute(key, (k, current) -> cacheInvalidationBus.isPending(k) ? current : version);
+            }
+        }
+    }
+    
+    @Override
+    public void onInvalidate(Set<String> keys) {
+        // Versions follow onBatch, which names the writes as well as the keys
+    }
+    
+    @Override
+    public void onResync() {
+        generation.incrementAndGet();
+        versions.clear();
+    }
+    
+    /**
+     * Builds a strong ETag for one representation of a resource. {@code variant} must hold
+     * everything else that shapes the body (paging parameters, the Accept header). Variant
+     * values go into the tag verbatim, URL-encoded so they stay legal ETag characters and
+     * cannot run into each other, so two different variants never share a tag.
+     */
+    public String etag(String scope, String version, Object... variant) {
+        StringBuilder tag = new StringBuilder("\"")
+                .append(scope).append('-')
+                .append(version);
+        for (Object value : variant) {
+            tag.append('~').append(URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8));
+        }
+        return tag.append('"').toString();
+    }
+    
+    /**
+     * Answers a conditional GET against {@code etag}, marking the response {@code Vary: Accept}
+     * since every tag covers the negotiated encoding. Returns true when the caller should
+     * return without a body.
+     */
+    public boolean checkNotModified(WebRequest webRequest, String etag) {
+        if (webRequest instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return webRequest.checkNotModified(etag);
+    }
+    
+    private String version(String key) {
+        String version = versions.get(key);
+        return version != null ? version : cacheInvalidationBus.getNodeId() + ".r" + generation.get();
+    }
+    
+    private void bump(String... keys) {
+        for (String key : keys) {
+            // Queued before the version changes, so onBatch for an earlier batch cannot overwrite it
+            cacheInvalidationBus.publish(key);
+            versions.put(key, cacheInvalidationBus.getNodeId() + ".l" + localWrites.incrementAndGet());
+        }
+    }
+    
+    private static boolean versioned(String key) {
+        return key.equals(HISTORY_KEY) || key.equals(ALL_PLAYERS_KEY) || key.equals(ANY_PLAYER_KEY)
+                || key.startsWith(TOURNAMENT_PREFIX) || key.startsWith(PLAYER_PREFIX);
+    }
+}
@@ -11,29 +11,26 @@ import java.time.LocalDateTime;
 @Service
 public class RuleEngine {
     
+    public static final String FALLBACK_VERSION = "rule-engine-fallback";
+    
     public PredictionResponse generatePrediction(PredictionRequest request) {
         log.info("Using rule engine for prediction: {} vs {}", 
                 request.getPlayer1Name(), request.getPlayer2Name());
         
         // Simple rule-based prediction
         double player1Prob = 0.5;
-        double player2Prob = 0.5;
         
         // Adjust based on available rank
         if (request.getPlayer1Rank() != null && request.getPlayer2Rank() != null) {
-            int rankDiff = request.getPlayer2Rank() - request.getPlayer1Rank();
-            player1Prob = 0.5 + (rankDiff * 0.01);
-            player1Prob = Math.max(0.3, Math.min(0.7, player1Prob));
-            player2Prob = 1.0 - player1Prob;
+            player1Prob = rankProbability((long) request.getPlayer2Rank() - request.getPlayer1Rank());
         }
         
         // Adjust based on career win percentage
         if (request.getPlayer1WinPctCareer() != null && request.getPlayer2WinPctCareer() != null) {
-            double winDiff = request.getPlayer1WinPctCareer() - request.getPlayer2WinPctCareer();
-            player1Prob += (winDiff * 0.1);
-            player1Prob = Math.max(0.3, Math.min(0.7, player1Prob));
-            player2Prob = 1.0 - player1Prob;
+            player1Prob = adjustForWinPct(player1Prob,
+                    request.getPlayer1WinPctCareer() - request.getPlayer2WinPctCareer());
         }
+        double player2Prob = 1.0 - player1Prob;
         
         String predictedWinner = player1Prob > player2Prob 
                 ? request.getPlayer1Name() 
@@ -53,4 +50,18 @@ public class RuleEngine {
                 .createdAt(LocalDateTime.now())
                 .build();
     }
+    
+    /** Player 1's win probability from the ranking gap ({@code rank2 - rank1}) alone. */
+    public static double rankProbability(long rankDiff) {
+        return clamp(0.5 + (rankDiff * 0.01));
+    }
+    
+    /** Shifts player 1's win probability by the career win-percentage gap ({@code pct1 - pct2}). */
+    public static double adjustForWinPct(double player1Prob, double winPctDiff) {
+        return clamp(player1Prob + (winPctDiff * 0.1));
+    }
+    
+    private static double clamp(double probability) {
+        return Math.max(0.3, Math.min(0.7, probability));
+    }
 }
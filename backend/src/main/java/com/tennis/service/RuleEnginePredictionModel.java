@@ -0,0 +1,28 @@
+package com.tennis.service;
+
+import com.tennis.dto.PredictionRequest;
+import com.tennis.dto.PredictionResponse;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The in-process {@link RuleEngine} exposed as a registry model, mainly as a cheap
+ * baseline to shadow against the ML models.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RuleEnginePredictionModel implements PredictionModel {
+    
+    private final String version;
+    private final RuleEngine ruleEngine;
+    
+    @Override
+    public Type getType() {
+        return Type.RULE_ENGINE;
+    }
+    
+    @Override
+    public PredictionResponse predict(PredictionRequest request) {
+        return ruleEngine.generatePrediction(request);
+    }
+}
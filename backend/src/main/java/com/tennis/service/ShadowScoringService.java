@@ -0,0 +1,179 @@
+package com.tennis.service;
+
+import com.tennis.config.ModelRegistryProperties;
+import com.tennis.dto.PredictionRequest;
+import com.tennis.dto.PredictionResponse;
+import com.tennis.event.PredictionEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scores committed predictions with the shadow models on a bounded executor and writes
+ * every model's output to {@code model_predictions} in batches, next to the row in
+ * {@code predictions}. Once {@code actual_winner} is settled the models can be compared
+ * with {@link #getAccuracyByModel()}. When the executor or the output buffer is full,
+ * work is dropped and counted rather than ever slowing the live request.
+ */
+@Slf4j
+@Service
+public class ShadowScoringService {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO model_predictions (prediction_id, model_version, role, player1_win_prob, "
+                    + "predicted_winner, confidence, latency_micros, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String ACCURACY_SQL =
+            "SELECT mp.model_version, mp.role, COUNT(*) AS settled, "
+                    + "SUM(CASE WHEN LOWER(mp.predicted_winner) = LOWER(p.actual_winner) THEN 1 ELSE 0 END) AS correct "
+                    + "FROM model_predictions mp JOIN predictions p ON p.id = mp.prediction_id "
+                    + "WHERE p.actual_winner IS NOT NULL GROUP BY mp.model_version, mp.role";
+    
+    private final ModelRegistry modelRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxPendingOutputs;
+    
+    private final ThreadPoolExecutor executor;
+    private final Queue<ModelOutput> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    
+    public ShadowScoringService(ModelRegistry modelRegistry, JdbcTemplate jdbcTemplate,
+                                ModelRegistryProperties properties) {
+        this.modelRegistry = modelRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        
+        ModelRegistryProperties.Shadow shadow = properties.getShadow();
+        this.enabled = shadow.isEnabled();
+        this.batchSize = shadow.getBatchSize();
+        this.maxPendingOutputs = shadow.getMaxPendingOutputs();
+        this.executor = new ThreadPoolExecutor(shadow.getThreads(), shadow.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(shadow.getQueueCapacity()),
+                new CustomizableThreadFactory("shadow-scoring-"),
+                (task, pool) -> dropped.incrementAndGet());
+    }
+    
+    private record ModelOutput(long predictionId, String modelVersion, String role, double player1WinProb,
+                               String predictedWinner, double confidence, long latencyMicros,
+                               LocalDateTime createdAt) {
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPredictionEvent(PredictionEvent event) {
+        PredictionResponse live = event.getPrediction();
+        if (!enabled || event.getType() != PredictionEvent.Type.CREATED || live.getId() == null) {
+            return;
+        }
+        
+        // The served output is already computed; recording it costs nothing
+        ModelRegistry.Routing routing = modelRegistry.getRouting();
+        String role = routing.canary() != null && routing.canary().getVersion().equals(live.getModelVersion())
+                ? "CANARY"
+                : "LIVE";
+        enqueue(new ModelOutput(live.getId(), live.getModelVersion(), role, live.getPlayer1WinProb(),
+                live.getPredictedWinner(), live.getConfidence(), 0, LocalDateTime.now()));
+        
+        List<PredictionModel> shadows = routing.shadows();
+        PredictionRequest request = event.getRequest();
+        if (shadows.isEmpty() || request == null) {
+            return;
+        }
+        for (PredictionModel shadow : shadows) {
+            executor.execute(() -> score(shadow, request, live.getId()));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${model-registry.shadow.flush-interval-ms:1000}")
+    public void flush() {
+        List<ModelOutput> batch = new ArrayList<>(batchSize);
+        ModelOutput output;
+        while ((output = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(output);
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+    
+    public List<Map<String, Object>> getAccuracyByModel() {
+        return jdbcTemplate.queryForList(ACCURACY_SQL);
+    }
+    
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+    
+    private void score(PredictionModel model, PredictionRequest request, long predictionId) {
+        long start = System.nanoTime();
+        try {
+            PredictionResponse response = model.predictOnce(request);
+            long latencyMicros = (System.nanoTime() - start) / 1000;
+            enqueue(new ModelOutput(predictionId, model.getVersion(), "SHADOW", response.getPlayer1WinProb(),
+                    response.getPredictedWinner(), response.getConfidence(), latencyMicros, LocalDateTime.now()));
+        } catch (Exception e) {
+            log.debug("Shadow model {} failed for prediction {}: {}", model.getVersion(), predictionId, e.getMessage());
+        }
+    }
+    
+    private void enqueue(ModelOutput output) {
+        if (pendingCount.incrementAndGet() > maxPendingOutputs) {
+            pendingCount.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        pending.add(output);
+    }
+    
+    private void write(List<ModelOutput> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, row) -> {
+                ps.setLong(1, row.predictionId());
+                ps.setString(2, row.modelVersion());
+                ps.setString(3, row.role());
+                ps.setDouble(4, row.player1WinProb());
+                ps.setString(5, row.predictedWinner());
+                ps.setDouble(6, row.confidence());
+                ps.setLong(7, row.latencyMicros());
+                ps.setTimestamp(8, Timestamp.valueOf(row.createdAt()));
+            });
+        } catch (Exception e) {
+            dropped.addAndGet(batch.size());
+            log.warn("Failed to write {} model outputs", batch.size(), e);
+        }
+    }
+}
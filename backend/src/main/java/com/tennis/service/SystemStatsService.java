@@ -1,8 +1,10 @@
 package com.tennis.service;
 
-import com.tennis.repository.MatchPredictionRepository;
+import com.tennis.repository.PredictionStore;
+import com.tennis.repository.SegmentLogPredictionStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 import java.lang.management.ManagementFactory;
@@ -15,8 +17,17 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class SystemStatsService {
     
-    private final MatchPredictionRepository predictionRepository;
+    private final PredictionStore predictionStore;
     private final MLServiceClient mlServiceClient;
+    private final PredictionFeedService predictionFeedService;
+    private final AdmissionControlService admissionControlService;
+    private final PredictionDeduplicationService predictionDeduplicationService;
+    private final ModelRegistry modelRegistry;
+    private final ShadowScoringService shadowScoringService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ObjectProvider<SegmentLogPredictionStore> embeddedStore;
+    private final PredictionTracer predictionTracer;
+    private final HeadToHeadIndex headToHeadIndex;
     
     private final long startTime = System.currentTimeMillis();
     
@@ -24,7 +35,7 @@ public class SystemStatsService {
         Map<String, Object> stats = new HashMap<>();
         
         // Prediction stats
-        stats.put("total_predictions", predictionRepository.count());
+        stats.put("total_predictions", predictionStore.count());
         
         // Memory stats
         MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
@@ -37,6 +48,15 @@ public class SystemStatsService {
         
         // Service status
         stats.put("ml_service_available", mlServiceClient.isAvailable());
+        stats.put("feed_subscribers", predictionFeedService.getSubscriberCount());
+        stats.put("admission", admissionControlService.getStats());
+        stats.put("shared_predictions_in_flight", predictionDeduplicationService.getInFlightCount());
+        stats.put("live_model", modelRegistry.getRouting().live().getVersion());
+        stats.put("shadow_outputs_dropped", shadowScoringService.getDroppedCount());
+        stats.put("cache_bus", cacheInvalidationBus.getStats());
+        stats.put("latency", predictionTracer.getStats());
+        stats.put("h2h", headToHeadIndex.getStats());
+        embeddedStore.ifAvailable(store -> stats.put("embedded_store", store.getStats()));
         stats.put("timestamp", System.currentTimeMillis());
         
         return stats;
@@ -0,0 +1,147 @@
+package com.tennis.service;
+
+import com.tennis.dto.PredictionRequest;
+import com.tennis.dto.WhatIfRequest;
+import com.tennis.dto.WhatIfResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+
+/**
+ * Scores a matchup over a grid of scenarios with the in-process {@link RuleEngine}. The
+ * grid is evaluated axis by axis over primitive arrays: the rank term once per rank delta,
+ * then one tight loop over win percentages per rank delta. Nothing is persisted and no
+ * events are published.
+ *
+ * Surface is not an axis: the rule engine has no surface term, so every surface would
+ * repeat the same plane. The grid is scored on the matchup's own surface.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WhatIfService {
+    
+    private static final String MODEL_VERSION = "rule-engine";
+    
+    private final ValidationService validationService;
+    
+    @Value("${what-if.max-grid-points:100000}")
+    private int maxGridPoints;
+    
+    public WhatIfResponse evaluate(WhatIfRequest request) {
+        long start = System.nanoTime();
+        PredictionRequest matchup = request.getMatchup();
+        validationService.validatePredictionRequest(matchup);
+        if (request.getSurfaces() != null && !request.getSurfaces().isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Surfaces are not a what-if axis: the rule engine has no surface term, set the matchup surface instead");
+        }
+        
+        // Checked before any axis is materialized
+        long points = (2L * request.getRankDeltaRange() / request.getRankDeltaStep() + 1) * request.getWinPctSteps();
+        if (points > maxGridPoints) {
+            throw new IllegalArgumentException("Grid has " + points + " points, the limit is " + maxGridPoints);
+        }
+        
+        int[] rankDeltas = rankDeltas(request, matchup);
+        double[] winPcts = winPcts(request, matchup);
+        
+        double[] grid = score(matchup, rankDeltas, winPcts);
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+        log.debug("What-if grid of {} points for {} vs {} in {} us",
+                grid.length, matchup.getPlayer1Name(), matchup.getPlayer2Name(), elapsedMicros);
+        
+        return WhatIfResponse.builder()
+                .player1Name(matchup.getPlayer1Name())
+                .player2Name(matchup.getPlayer2Name())
+                .modelVersion(MODEL_VERSION)
+                .surface(matchup.getSurface())
+                .rankDeltas(rankDeltas)
+                .player1WinPcts(winPcts)
+                .shape(new int[]{rankDeltas.length, winPcts == null ? 1 : winPcts.length})
+                .player1WinProb(grid)
+                .elapsedMicros(elapsedMicros)
+                .build();
+    }
+    
+    /** {@code winPcts} is null when player 1 has no win percentage; the grid then has one column. */
+    private double[] score(PredictionRequest matchup, int[] rankDeltas, double[] winPcts) {
+        boolean hasRanks = matchup.getPlayer1Rank() != null && matchup.getPlayer2Rank() != null;
+        boolean hasWinPct = matchup.getPlayer2WinPctCareer() != null && winPcts != null;
+        int player1Rank = hasRanks ? matchup.getPlayer1Rank() : 0;
+        int player2Rank = hasRanks ? matchup.getPlayer2Rank() : 0;
+        double player2WinPct = hasWinPct ? matchup.getPlayer2WinPctCareer() : 0.0;
+        int columns = winPcts == null ? 1 : winPcts.length;
+        
+        double[] winPctDiffs = new double[columns];
+        for (int w = 0; hasWinPct && w < columns; w++) {
+            winPctDiffs[w] = winPcts[w] - player2WinPct;
+        }
+        
+        double[] grid = new double[rankDeltas.length * columns];
+        int index = 0;
+        for (int rankDelta : rankDeltas) {
+            double base = hasRanks ? RuleEngine.rankProbability((long) player2Rank - player1Rank - rankDelta) : 0.5;
+            if (!hasWinPct) {
+                Arrays.fill(grid, index, index + columns, base);
+                index += columns;
+                continue;
+            }
+            for (double winPctDiff : winPctDiffs) {
+                grid[index++] = RuleEngine.adjustForWinPct(base, winPctDiff);
+            }
+        }
+        return grid;
+    }
+    
+    private int[] rankDeltas(WhatIfRequest request, PredictionRequest matchup) {
+        int range = request.getRankDeltaRange();
+        if (range == 0) {
+            return new int[]{0};
+        }
+        if (matchup.getPlayer1Rank() == null || matchup.getPlayer2Rank() == null) {
+            throw new IllegalArgumentException("Rank deltas need both player ranks");
+        }
+        
+        // Counted rather than stepped until past the range, so no delta can overflow
+        int step = request.getRankDeltaStep();
+        int count = (int) (2L * range / step + 1);
+        // Deltas that would move player 1 above number one are left out
+        long lowest = 1L - matchup.getPlayer1Rank();
+        int[] deltas = new int[count];
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            long delta = -range + (long) i * step;
+            if (delta >= lowest) {
+                deltas[kept++] = (int) delta;
+            }
+        }
+        return kept == count ? deltas : Arrays.copyOf(deltas, kept);
+    }
+    
+    private double[] winPcts(WhatIfRequest request, PredictionRequest matchup) {
+        Double min = request.getWinPctMin();
+        Double max = request.getWinPctMax();
+        if (min == null && max == null) {
+            Double current = matchup.getPlayer1WinPctCareer();
+            return current == null || current.isNaN() ? null : new double[]{current};
+        }
+        // Written so NaN bounds fail as well
+        if (min == null || max == null || !(min >= 0 && max <= 1 && min <= max)) {
+            throw new IllegalArgumentException("Win percentage range must satisfy 0 <= min <= max <= 1");
+        }
+        if (matchup.getPlayer2WinPctCareer() == null) {
+            throw new IllegalArgumentException("Win percentage range needs player 2's career win percentage");
+        }
+        
+        int steps = request.getWinPctSteps();
+        double[] values = new double[steps];
+        for (int i = 0; i < steps; i++) {
+            values[i] = steps == 1 ? min : min + (max - min) * i / (steps - 1);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,15 @@
+-- Per-model outputs written by ShadowScoringService (live, canary and shadow models).
+-- Joined to predictions on prediction_id to compare accuracy once actual_winner is known.
+CREATE TABLE IF NOT EXISTS model_predictions (
+    id               BIGSERIAL PRIMARY KEY,
+    prediction_id    BIGINT           NOT NULL REFERENCES predictions (id) ON DELETE CASCADE,
+    model_version    VARCHAR(100)     NOT NULL,
+    role             VARCHAR(20)      NOT NULL,
+    player1_win_prob DOUBLE PRECISION NOT NULL,
+    predicted_winner VARCHAR(255)     NOT NULL,
+    confidence       DOUBLE PRECISION NOT NULL,
+    latency_micros   BIGINT           NOT NULL,
+    created_at       TIMESTAMP        NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_model_predictions_prediction_id ON model_predictions (prediction_id);
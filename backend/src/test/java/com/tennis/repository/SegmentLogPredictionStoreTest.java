@@ -0,0 +1,219 @@
+package com.tennis.repository;
+
+import com.tennis.entity.MatchPrediction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentLogPredictionStoreTest {
+    
+    private static final int SEGMENT_SIZE = 4096;
+    private static final Path FIRST_SEGMENT = Path.of("000000000000.seg");
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void replaysSavedPredictionsAfterRestart() throws IOException {
+        SegmentLogPredictionStore store = open();
+        MatchPrediction first = store.save(prediction("Alcaraz", "Sinner"));
+        store.save(prediction("Djokovic", "Medvedev"));
+        store.close();
+        
+        SegmentLogPredictionStore reopened = open();
+        assertEquals(2, reopened.count());
+        MatchPrediction replayed = reopened.findById(first.getId()).orElseThrow();
+        assertEquals("Alcaraz", replayed.getPlayer1Name());
+        assertEquals("Sinner", replayed.getPlayer2Name());
+        assertEquals(first.getCreatedAt(), replayed.getCreatedAt());
+        assertEquals(List.of(first.getId()), ids(reopened.findByPlayer("Sinner")));
+    }
+    
+    @Test
+    void latestVersionWinsOnReplay() throws IOException {
+        SegmentLogPredictionStore store = open();
+        MatchPrediction saved = store.save(prediction("Alcaraz", "Sinner"));
+        saved.setActualWinner("Sinner");
+        saved.setCorrect(false);
+        store.save(saved);
+        store.close();
+        
+        SegmentLogPredictionStore reopened = open();
+        assertEquals(1, reopened.count());
+        MatchPrediction replayed = reopened.findById(saved.getId()).orElseThrow();
+        assertEquals("Sinner", replayed.getActualWinner());
+        assertEquals(false, replayed.getCorrect());
+    }
+    
+    @Test
+    void tornTailIsDiscardedAndOverwritten() throws IOException {
+        SegmentLogPredictionStore store = open();
+        store.save(prediction("Alcaraz", "Sinner"));
+        store.save(prediction("Djokovic", "Medvedev"));
+        store.close();
+        
+        // A length pointing past the end of the segment with nothing written after it
+        int end = recordEnd(1);
+        writeInt(end, Integer.MAX_VALUE);
+        
+        SegmentLogPredictionStore reopened = open();
+        assertEquals(2, reopened.count());
+        reopened.save(prediction("Zverev", "Rune"));
+        reopened.close();
+        
+        SegmentLogPredictionStore again = open();
+        assertEquals(3, again.count());
+        assertEquals(1, segmentFiles().size());
+    }
+    
+    @Test
+    void corruptRecordIsSkippedWithoutLosingLaterRecords() throws IOException {
+        SegmentLogPredictionStore store = open();
+        MatchPrediction first = store.save(prediction("Alcaraz", "Sinner"));
+        MatchPrediction second = store.save(prediction("Djokovic", "Medvedev"));
+        MatchPrediction third = store.save(prediction("Zverev", "Rune"));
+        store.close();
+        
+        flipByte(recordEnd(0) + 30);
+        
+        SegmentLogPredictionStore reopened = open();
+        assertTrue(reopened.findById(first.getId()).isPresent());
+        assertFalse(reopened.findById(second.getId()).isPresent());
+        assertTrue(reopened.findById(third.getId()).isPresent());
+        
+        // Appending after recovery must not zero the record behind the corrupt one
+        MatchPrediction fourth = reopened.save(prediction("Ruud", "Fritz"));
+        reopened.close();
+        
+        SegmentLogPredictionStore again = open();
+        assertEquals(3, again.count());
+        assertTrue(again.findById(third.getId()).isPresent());
+        assertTrue(again.findById(fourth.getId()).isPresent());
+    }
+    
+    @Test
+    void unreadableLengthKeepsTheRestOfTheSegment() throws IOException {
+        SegmentLogPredictionStore store = open();
+        MatchPrediction first = store.save(prediction("Alcaraz", "Sinner"));
+        store.save(prediction("Djokovic", "Medvedev"));
+        store.save(prediction("Zverev", "Rune"));
+        store.close();
+        
+        writeInt(recordEnd(0), -5);
+        byte[] damaged = Files.readAllBytes(directory.resolve(FIRST_SEGMENT));
+        
+        SegmentLogPredictionStore reopened = open();
+        assertEquals(1, reopened.count());
+        assertTrue(reopened.findById(first.getId()).isPresent());
+        
+        // New writes go to a fresh segment and the damaged one is left byte for byte
+        reopened.save(prediction("Ruud", "Fritz"));
+        reopened.compact();
+        reopened.close();
+        assertEquals(2, segmentFiles().size());
+        assertArrayEquals(damaged, Files.readAllBytes(directory.resolve(FIRST_SEGMENT)));
+        
+        assertEquals(2, open().count());
+    }
+    
+    @Test
+    void compactionKeepsLiveRecordsAcrossRestart() throws IOException {
+        SegmentLogPredictionStore store = open();
+        List<MatchPrediction> saved = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            saved.add(store.save(prediction("Player " + i, "Opponent " + i)));
+        }
+        // Settle every prediction so the first segments are mostly dead
+        for (MatchPrediction prediction : saved) {
+            prediction.setActualWinner(prediction.getPlayer1Name());
+            store.save(prediction);
+        }
+        int segmentsBefore = segmentFiles().size();
+        
+        store.compact();
+        
+        Map<String, Object> stats = store.getStats();
+        assertEquals(1L, stats.get("compactions"));
+        assertTrue(segmentFiles().size() < segmentsBefore);
+        assertEquals(60, store.count());
+        store.close();
+        
+        SegmentLogPredictionStore reopened = open();
+        assertEquals(60, reopened.count());
+        for (MatchPrediction prediction : saved) {
+            assertEquals(prediction.getPlayer1Name(),
+                    reopened.findById(prediction.getId()).orElseThrow().getActualWinner());
+        }
+    }
+    
+    private SegmentLogPredictionStore open() throws IOException {
+        SegmentLogPredictionStore store = new SegmentLogPredictionStore(directory.toString(), SEGMENT_SIZE, 0.5);
+        store.open();
+        return store;
+    }
+    
+    private static MatchPrediction prediction(String player1, String player2) {
+        return MatchPrediction.builder()
+                .player1Name(player1)
+                .player2Name(player2)
+                .player1WinProbability(0.6)
+                .player2WinProbability(0.4)
+                .predictedWinner(player1)
+                .confidence(0.2)
+                .tournament("Wimbledon")
+                .surface("GRASS")
+                .createdAt(LocalDateTime.of(2024, 7, 1, 12, 0))
+                .build();
+    }
+    
+    private static List<Long> ids(List<MatchPrediction> predictions) {
+        return predictions.stream().map(MatchPrediction::getId).toList();
+    }
+    
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).toList();
+        }
+    }
+    
+    /** Offset just past record {@code index} of the first segment. */
+    private int recordEnd(int index) throws IOException {
+        ByteBuffer segment = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(FIRST_SEGMENT)));
+        int position = 0;
+        for (int i = 0; i <= index; i++) {
+            position += 8 + segment.getInt(position);
+        }
+        return position;
+    }
+    
+    private void writeInt(int position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(FIRST_SEGMENT), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), position);
+        }
+    }
+    
+    private void flipByte(int position) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(FIRST_SEGMENT),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, position);
+            channel.write(ByteBuffer.allocate(1).put(0, (byte) (value.get(0) ^ 0xFF)), position);
+        }
+    }
+}
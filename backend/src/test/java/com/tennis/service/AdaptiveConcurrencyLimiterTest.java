@@ -0,0 +1,86 @@
+package com.tennis.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+    
+    private static final long FAST = 1_000_000L;
+    private static final long SLOW = 5_000_000_000L;
+    
+    @Test
+    void rejectsOnceTheLimitIsInFlight() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 1000, 0.5);
+        
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+    }
+    
+    @Test
+    void growsByOneOnFastSuccessUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 3, 1000, 0.5);
+        
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(3, limiter.getLimit());
+        
+        // Never past the maximum
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(3, limiter.getLimit());
+    }
+    
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 1, 10, 1000, 0.5);
+        
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        
+        assertEquals(4, limiter.getLimit());
+    }
+    
+    @Test
+    void backsOffOnFailureOrSlowResponse() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 8, 1, 10, 1000, 0.5);
+        
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+        assertEquals(4, limiter.getLimit());
+        
+        limiter.tryAcquire();
+        limiter.release(SLOW, true);
+        assertEquals(2, limiter.getLimit());
+    }
+    
+    @Test
+    void neverDropsBelowTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 1000, 0.5);
+        
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+        
+        assertEquals(1, limiter.getLimit());
+    }
+    
+    @Test
+    void ignoredReleaseOnlyFreesTheSlot() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 1000, 0.5);
+        
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.releaseIgnored();
+        
+        assertEquals(2, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,118 @@
+package com.tennis.service;
+
+import com.tennis.service.AdmissionControlService.Admission;
+import com.tennis.service.AdmissionControlService.Outcome;
+import com.tennis.service.AdmissionControlService.TrafficClass;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlServiceTest {
+    
+    @Test
+    void bucketRateLimitsAClientOnceItIsEmpty() {
+        AdmissionControlService service = service(3, 10);
+        
+        for (int i = 0; i < 3; i++) {
+            Admission admission = service.admit("10.0.0.1", null, TrafficClass.INTERACTIVE);
+            assertEquals(Outcome.ADMITTED, admission.outcome());
+            service.release(admission, true);
+        }
+        Admission limited = service.admit("10.0.0.1", null, TrafficClass.INTERACTIVE);
+        
+        assertEquals(Outcome.RATE_LIMITED, limited.outcome());
+        assertTrue(limited.retryAfterSeconds() >= 1);
+        // Another address has its own bucket
+        assertEquals(Outcome.ADMITTED, service.admit("10.0.0.2", null, TrafficClass.INTERACTIVE).outcome());
+    }
+    
+    @Test
+    void batchPaysPerMatchupAndMayRunIntoDebt() {
+        AdmissionControlService service = service(10, 10);
+        
+        Admission admission = service.admit("10.0.0.1", null, TrafficClass.BATCH);
+        assertEquals(0, service.chargeBatch("10.0.0.1", 5));
+        // Five tokens left: a nine-token charge has to wait
+        assertTrue(service.chargeBatch("10.0.0.1", 10) > 0);
+        service.releaseIgnored(admission);
+    }
+    
+    @Test
+    void poolShedsOnceItsLimitIsInFlight() {
+        AdmissionControlService service = service(100, 10);
+        
+        Admission first = service.admit("10.0.0.1", null, TrafficClass.BATCH);
+        Admission second = service.admit("10.0.0.1", null, TrafficClass.BATCH);
+        Admission third = service.admit("10.0.0.1", null, TrafficClass.BATCH);
+        
+        assertTrue(first.isAdmitted());
+        assertTrue(second.isAdmitted());
+        assertEquals(Outcome.OVERLOADED, third.outcome());
+        // Batch traffic does not use up interactive slots
+        assertTrue(service.admit("10.0.0.1", null, TrafficClass.INTERACTIVE).isAdmitted());
+        
+        service.release(first, true);
+        assertTrue(service.admit("10.0.0.1", null, TrafficClass.BATCH).isAdmitted());
+    }
+    
+    @Test
+    void ignoredReleasesLeaveTheLimitAlone() {
+        AdmissionControlService service = service(1000, 10);
+        
+        for (int round = 0; round < 20; round++) {
+            List<Admission> admitted = admitAll(service, TrafficClass.BATCH);
+            admitted.forEach(service::releaseIgnored);
+        }
+        
+        assertEquals(2, poolStats(service, "batch").get("limit"));
+        assertEquals(0, poolStats(service, "batch").get("in_flight"));
+    }
+    
+    @Test
+    void limitsNeverGrowPastTheConnectionPool() {
+        AdmissionControlService service = service(100_000, 10);
+        
+        for (int round = 0; round < 50; round++) {
+            for (TrafficClass trafficClass : TrafficClass.values()) {
+                admitAll(service, trafficClass).forEach(admission -> service.release(admission, true));
+            }
+        }
+        
+        int interactive = (int) poolStats(service, "interactive").get("limit");
+        int batch = (int) poolStats(service, "batch").get("limit");
+        assertEquals(4, batch);
+        assertEquals(6, interactive);
+        assertTrue(interactive + batch <= 10);
+    }
+    
+    private static AdmissionControlService service(double capacity, int connectionPoolSize) {
+        AdmissionControlService service = new AdmissionControlService(
+                4, 32, 2000, 2, 4, 30000, 0.9, connectionPoolSize);
+        ReflectionTestUtils.setField(service, "bucketCapacity", capacity);
+        ReflectionTestUtils.setField(service, "refillPerSecond", 0.001);
+        ReflectionTestUtils.setField(service, "batchCostPerMatchup", 1.0);
+        ReflectionTestUtils.setField(service, "maxClients", 100);
+        ReflectionTestUtils.setField(service, "idleEvictionMillis", 300000L);
+        return service;
+    }
+    
+    private static List<Admission> admitAll(AdmissionControlService service, TrafficClass trafficClass) {
+        List<Admission> admitted = new ArrayList<>();
+        Admission admission;
+        while ((admission = service.admit("10.0.0.1", null, trafficClass)).isAdmitted()) {
+            admitted.add(admission);
+        }
+        return admitted;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> poolStats(AdmissionControlService service, String pool) {
+        return (Map<String, Object>) service.getStats().get(pool);
+    }
+}
@@ -0,0 +1,198 @@
+package com.tennis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheInvalidationBusTest {
+    
+    private NotifyingJdbcTemplate senderJdbc;
+    private RecordingListener senderListener;
+    private CacheInvalidationBus sender;
+    private RecordingListener receiverListener;
+    private CacheInvalidationBus receiver;
+    
+    @BeforeEach
+    void setUp() {
+        senderJdbc = new NotifyingJdbcTemplate();
+        senderListener = new RecordingListener();
+        sender = bus(senderJdbc, senderListener);
+        receiverListener = new RecordingListener();
+        receiver = bus(new NotifyingJdbcTemplate(), receiverListener);
+    }
+    
+    @Test
+    void batchesFromAnotherNodeReachListeners() {
+        sender.publish("history");
+        sender.publish("player:7");
+        sender.flush();
+        
+        // The sender names its own batch but has nothing to invalidate
+        assertEquals(List.of(sender.getNodeId() + "#1"), senderListener.batches);
+        assertEquals(List.of(), senderListener.invalidated);
+        
+        receiver.receive(senderJdbc.payloads.get(0));
+        assertEquals(List.of(sender.getNodeId() + "#1"), receiverListener.batches);
+        assertEquals(List.of(Set.of("history", "player:7")), receiverListener.invalidated);
+        assertEquals(0, receiverListener.resyncs);
+    }
+    
+    @Test
+    void sequenceGapResyncs() {
+        for (int i = 0; i < 4; i++) {
+            sender.publish("key" + i);
+            sender.flush();
+        }
+        
+        receiver.receive(senderJdbc.payloads.get(0));
+        receiver.receive(senderJdbc.payloads.get(2));
+        assertEquals(1, receiverListener.resyncs);
+        assertEquals(List.of(Set.of("key0")), receiverListener.invalidated);
+        
+        // Back in sequence after the gap
+        receiver.receive(senderJdbc.payloads.get(3));
+        assertEquals(1, receiverListener.resyncs);
+        assertEquals(List.of(Set.of("key0"), Set.of("key3")), receiverListener.invalidated);
+    }
+    
+    @Test
+    void failedSendLeavesAGapReceiversNotice() {
+        sender.publish("key0");
+        sender.flush();
+        senderJdbc.failing = true;
+        sender.publish("key1");
+        sender.flush();
+        senderJdbc.failing = false;
+        sender.publish("key2");
+        sender.flush();
+        
+        // The failed batch never became a version on the sender either
+        assertEquals(List.of(sender.getNodeId() + "#1", sender.getNodeId() + "#3"), senderListener.batches);
+        
+        receiver.receive(senderJdbc.payloads.get(0));
+        receiver.receive(senderJdbc.payloads.get(1));
+        assertEquals(1, receiverListener.resyncs);
+    }
+    
+    @Test
+    void duplicateAndStaleBatchesAreIgnored() {
+        for (int i = 0; i < 2; i++) {
+            sender.publish("key" + i);
+            sender.flush();
+        }
+        
+        receiver.receive(senderJdbc.payloads.get(0));
+        receiver.receive(senderJdbc.payloads.get(0));
+        receiver.receive(senderJdbc.payloads.get(1));
+        receiver.receive(senderJdbc.payloads.get(0));
+        
+        assertEquals(List.of(Set.of("key0"), Set.of("key1")), receiverListener.invalidated);
+        assertEquals(0, receiverListener.resyncs);
+    }
+    
+    @Test
+    void firstBatchFromANodeIsAcceptedAtAnySequence() {
+        for (int i = 0; i < 3; i++) {
+            sender.publish("key" + i);
+            sender.flush();
+        }
+        
+        receiver.receive(senderJdbc.payloads.get(2));
+        
+        assertEquals(List.of(Set.of("key2")), receiverListener.invalidated);
+        assertEquals(0, receiverListener.resyncs);
+    }
+    
+    @Test
+    void ownBatchesAreIgnoredOnReceipt() {
+        sender.publish("history");
+        sender.flush();
+        
+        sender.receive(senderJdbc.payloads.get(0));
+        
+        assertEquals(List.of(), senderListener.invalidated);
+        assertEquals(1, senderListener.batches.size());
+    }
+    
+    @Test
+    void largeFlushesAreSplitUnderThePayloadLimit() {
+        Set<String> published = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "tournament:Tournament " + i;
+            published.add(key);
+            sender.publish(key);
+        }
+        sender.flush();
+        
+        assertTrue(senderJdbc.payloads.size() > 1);
+        Set<String> delivered = new HashSet<>();
+        for (String payload : senderJdbc.payloads) {
+            assertTrue(payload.getBytes(StandardCharsets.UTF_8).length < 8000);
+            receiver.receive(payload);
+        }
+        receiverListener.invalidated.forEach(delivered::addAll);
+        assertEquals(published, delivered);
+        assertEquals(0, receiverListener.resyncs);
+    }
+    
+    private static CacheInvalidationBus bus(JdbcTemplate jdbcTemplate, CacheInvalidationListener listener) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("listener", listener));
+        CacheInvalidationBus bus = new CacheInvalidationBus(jdbcTemplate, null, new ObjectMapper(),
+                beanFactory.getBeanProvider(CacheInvalidationListener.class));
+        ReflectionTestUtils.setField(bus, "enabled", true);
+        ReflectionTestUtils.setField(bus, "channel", "cache_invalidation");
+        return bus;
+    }
+    
+    /** Records the payload of every {@code pg_notify} instead of sending it. */
+    private static final class NotifyingJdbcTemplate extends JdbcTemplate {
+        
+        final List<String> payloads = new ArrayList<>();
+        boolean failing;
+        
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            if (failing) {
+                throw new DataAccessResourceFailureException("database unavailable");
+            }
+            payloads.add((String) args[1]);
+            return null;
+        }
+    }
+    
+    private static final class RecordingListener implements CacheInvalidationListener {
+        
+        final List<String> batches = new ArrayList<>();
+        final List<Set<String>> invalidated = new ArrayList<>();
+        int resyncs;
+        
+        @Override
+        public void onBatch(String node, long sequence, Set<String> keys) {
+            batches.add(node + "#" + sequence);
+        }
+        
+        @Override
+        public void onInvalidate(Set<String> keys) {
+            invalidated.add(keys);
+        }
+        
+        @Override
+        public void onResync() {
+            resyncs++;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.tennis.service;
+
+import com.tennis.dto.HeadToHeadDto;
+import com.tennis.dto.PredictionRequest;
+import com.tennis.dto.PredictionResponse;
+import com.tennis.entity.MatchPrediction;
+import com.tennis.entity.Player;
+import com.tennis.event.PredictionEvent;
+import com.tennis.repository.PredictionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeadToHeadIndexTest {
+    
+    private static final LocalDateTime PLAYED_AT = LocalDateTime.of(2024, 7, 1, 12, 0);
+    
+    private InMemoryPredictionStore predictionStore;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private HeadToHeadIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        List<Player> players = new ArrayList<>();
+        players.add(player(1, "Carlos Alcaraz"));
+        players.add(player(2, "Jannik Sinner"));
+        for (int id = 3; id <= 41; id++) {
+            players.add(player(id, "Player " + id));
+        }
+        predictionStore = new InMemoryPredictionStore();
+        cacheInvalidationBus = new CacheInvalidationBus(null, null, null, null);
+        ReflectionTestUtils.setField(cacheInvalidationBus, "enabled", true);
+        index = new HeadToHeadIndex(new FixedSnapshotService(players), predictionStore, cacheInvalidationBus,
+                3, 365, 16);
+    }
+    
+    @Test
+    void bootstrapCountsEachSettledPredictionOnce() {
+        predictionStore.save(settled(1, "Carlos Alcaraz", "Jannik Sinner", "Carlos Alcaraz", "HARD"));
+        predictionStore.save(settled(2, "Jannik Sinner", "Carlos Alcaraz", "carlos alcaraz", "CLAY"));
+        predictionStore.save(settled(3, "Carlos Alcaraz", "Jannik Sinner", "Jannik Sinner", "HARD"));
+        predictionStore.save(settled(4, "Carlos Alcaraz", "Jannik Sinner", null, "GRASS"));
+        
+        index.bootstrap();
+        // A resync re-reads everything over the live index
+        index.onResync();
+        
+        HeadToHeadDto h2h = index.lookup(1, 2);
+        assertEquals(3, h2h.getMatches());
+        assertEquals(2, h2h.getPlayerWins());
+        assertEquals(1, h2h.getOpponentWins());
+        assertArrayEquals(new int[]{1, 1}, h2h.getWinsBySurface().get("HARD"));
+        assertArrayEquals(new int[]{1, 0}, h2h.getWinsBySurface().get("CLAY"));
+        assertEquals(3L, index.getStats().get("results"));
+    }
+    
+    @Test
+    void lookupReadsFromEitherPlayersSide() {
+        settle(1, "Carlos Alcaraz", "Jannik Sinner", "Carlos Alcaraz");
+        settle(2, "Carlos Alcaraz", "Jannik Sinner", "Carlos Alcaraz");
+        settle(3, "Carlos Alcaraz", "Jannik Sinner", "Jannik Sinner");
+        
+        HeadToHeadDto sinner = index.lookup(2, 1);
+        
+        assertEquals(1, sinner.getPlayerWins());
+        assertEquals(2, sinner.getOpponentWins());
+        assertEquals(List.of("W", "L", "L"), sinner.getRecentResults());
+        assertEquals(1.0 / 3, sinner.getDecayedPlayerShare(), 1e-9);
+    }
+    
+    @Test
+    void recentHistoryKeepsOnlyTheLastResults() {
+        String[] winners = {"Carlos Alcaraz", "Carlos Alcaraz", "Jannik Sinner", "Jannik Sinner", "Carlos Alcaraz"};
+        for (int i = 0; i < winners.length; i++) {
+            settle(i + 1, "Carlos Alcaraz", "Jannik Sinner", winners[i]);
+        }
+        
+        assertEquals(List.of("W", "L", "L"), index.lookup(1, 2).getRecentResults());
+        assertEquals(5, index.lookup(1, 2).getMatches());
+    }
+    
+    @Test
+    void settlingAgainMovesTheResultToTheOtherSide() {
+        settle(10, "Carlos Alcaraz", "Jannik Sinner", "Carlos Alcaraz");
+        settle(11, "Carlos Alcaraz", "Jannik Sinner", "Carlos Alcaraz");
+        settle(10, "Carlos Alcaraz", "Jannik Sinner", "Jannik Sinner");
+        // The same result again changes nothing
+        settle(10, "Carlos Alcaraz", "Jannik Sinner", "Jannik Sinner");
+        
+        HeadToHeadDto h2h = index.lookup(1, 2);
+        assertEquals(2, h2h.getMatches());
+        assertEquals(1, h2h.getPlayerWins());
+        assertEquals(1, h2h.getOpponentWins());
+        assertEquals(List.of("W", "L"), h2h.getRecentResults());
+        assertEquals(0.5, h2h.getDecayedPlayerShare(), 1e-9);
+        assertEquals(1L, index.getStats().get("corrections"));
+        assertTrue(cacheInvalidationBus.isPending("h2h:10"));
+    }
+    
+    @Test
+    void settlementsFromOtherNodesAreReadFromTheStore() {
+        predictionStore.save(settled(7, "Carlos Alcaraz", "Jannik Sinner", "Jannik Sinner", "GRASS"));
+        
+        index.onInvalidate(Set.of("h2h:7", "h2h:999", "h2h:oops", "players:all"));
+        index.onInvalidate(Set.of("h2h:7"));
+        
+        HeadToHeadDto h2h = index.lookup(1, 2);
+        assertEquals(1, h2h.getMatches());
+        assertArrayEquals(new int[]{0, 1}, h2h.getWinsBySurface().get("GRASS"));
+    }
+    
+    @Test
+    void enrichFillsOnlyTheFeaturesTheCallerLeftOut() {
+        settle(1, "Carlos Alcaraz", "Jannik Sinner", "Carlos Alcaraz");
+        settle(2, "Carlos Alcaraz", "Jannik Sinner", "Jannik Sinner");
+        settle(3, "Carlos Alcaraz", "Jannik Sinner", "Jannik Sinner");
+        
+        PredictionRequest request = new PredictionRequest();
+        request.setPlayer1Name("jannik sinner");
+        request.setPlayer2Name("Carlos Alcaraz");
+        request.setSurface("HARD");
+        request.setH2hPlayer1Wins(99);
+        index.enrich(request);
+        
+        assertEquals(99, request.getH2hPlayer1Wins());
+        assertEquals(1, request.getH2hPlayer2Wins());
+        assertEquals(2, request.getH2hSurfacePlayer1Wins());
+        assertEquals(1, request.getH2hSurfacePlayer2Wins());
+        assertEquals(3, request.getH2hRecentMatches());
+        assertEquals(2, request.getH2hRecentPlayer1Wins());
+        assertEquals(2.0 / 3, request.getH2hDecayedPlayer1Share(), 1e-9);
+    }
+    
+    @Test
+    void unknownPlayersAreLeftUnresolved() {
+        settle(1, "Carlos Alcaraz", "Nobody", "Nobody");
+        
+        PredictionRequest request = new PredictionRequest();
+        request.setPlayer1Name("Carlos Alcaraz");
+        request.setPlayer2Name("Nobody");
+        index.enrich(request);
+        
+        assertNull(request.getH2hPlayer1Wins());
+        assertEquals(1L, index.getStats().get("unresolved_results"));
+        assertThrows(IllegalArgumentException.class, () -> index.lookup(1, 1));
+    }
+    
+    @Test
+    void growsPastItsInitialCapacity() {
+        for (int opponent = 3; opponent <= 41; opponent++) {
+            settle(opponent, "Carlos Alcaraz", "Player " + opponent, "Carlos Alcaraz");
+        }
+        
+        for (int opponent = 3; opponent <= 41; opponent++) {
+            assertEquals(1, index.lookup(1, opponent).getPlayerWins());
+        }
+        assertEquals(39, index.getStats().get("pairs"));
+    }
+    
+    @Test
+    void readersNeverSeeAHalfAppliedResult() throws Exception {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            try {
+                for (int i = 1; i <= 50_000; i++) {
+                    settle(i, "Carlos Alcaraz", "Jannik Sinner", i % 2 == 0 ? "Carlos Alcaraz" : "Jannik Sinner");
+                }
+            } finally {
+                writing.set(false);
+            }
+        });
+        
+        // Every result has the same date, so the decayed share tracks the win counts exactly
+        List<CompletableFuture<Void>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(CompletableFuture.runAsync(() -> {
+                while (writing.get()) {
+                    HeadToHeadDto h2h = index.lookup(1, 2);
+                    if (h2h.getMatches() > 0) {
+                        assertEquals((double) h2h.getPlayerWins() / h2h.getMatches(),
+                                h2h.getDecayedPlayerShare(), 1e-9);
+                        assertEquals(Math.min(3, h2h.getMatches()), h2h.getRecentResults().size());
+                    }
+                }
+            }));
+        }
+        
+        writer.get(30, TimeUnit.SECONDS);
+        for (CompletableFuture<Void> reader : readers) {
+            reader.get(30, TimeUnit.SECONDS);
+        }
+        assertEquals(50_000, index.lookup(1, 2).getMatches());
+    }
+    
+    private void settle(long id, String player1, String player2, String winner) {
+        PredictionResponse prediction = PredictionResponse.builder()
+                .id(id)
+                .player1Name(player1)
+                .player2Name(player2)
+                .actualWinner(winner)
+                .surface("HARD")
+                .createdAt(PLAYED_AT)
+                .build();
+        index.onPredictionEvent(new PredictionEvent(PredictionEvent.Type.SETTLED, prediction));
+    }
+    
+    private static MatchPrediction settled(long id, String player1, String player2, String winner, String surface) {
+        return MatchPrediction.builder()
+                .id(id)
+                .player1Name(player1)
+                .player2Name(player2)
+                .actualWinner(winner)
+                .surface(surface)
+                .createdAt(PLAYED_AT)
+                .build();
+    }
+    
+    private static Player player(long id, String name) {
+        Player player = new Player();
+        player.setId(id);
+        player.setName(name);
+        player.setRank((int) id);
+        return player;
+    }
+    
+    private static final class FixedSnapshotService extends PlayerSnapshotService {
+        
+        private final Snapshot snapshot;
+        
+        FixedSnapshotService(List<Player> players) {
+            super(null);
+            Map<Long, Player> byId = new HashMap<>();
+            Map<String, Player> byName = new HashMap<>();
+            for (Player player : players) {
+                byId.put(player.getId(), player);
+                byName.put(player.getName().toLowerCase(Locale.ROOT), player);
+            }
+            this.snapshot = new Snapshot(players, byId, byName, 0);
+        }
+        
+        @Override
+        public Optional<Snapshot> current() {
+            return Optional.of(snapshot);
+        }
+    }
+    
+    private static final class InMemoryPredictionStore implements PredictionStore {
+        
+        private final TreeMap<Long, MatchPrediction> predictions = new TreeMap<>();
+        
+        @Override
+        public MatchPrediction save(MatchPrediction prediction) {
+            predictions.put(prediction.getId(), prediction);
+            return prediction;
+        }
+        
+        @Override
+        public Optional<MatchPrediction> findById(Long id) {
+            return Optional.ofNullable(predictions.get(id));
+        }
+        
+        @Override
+        public Page<MatchPrediction> findAll(Pageable pageable) {
+            List<MatchPrediction> all = new ArrayList<>(predictions.values());
+            int from = (int) Math.min(pageable.getOffset(), all.size());
+            int to = Math.min(from + pageable.getPageSize(), all.size());
+            return new PageImpl<>(all.subList(from, to), pageable, all.size());
+        }
+        
+        @Override
+        public List<MatchPrediction> findByTournament(String tournament) {
+            return predictions.values().stream().filter(p -> tournament.equals(p.getTournament())).toList();
+        }
+        
+        @Override
+        public List<MatchPrediction> findByPlayer(String playerName) {
+            return predictions.values().stream()
+                    .filter(p -> playerName.equals(p.getPlayer1Name()) || playerName.equals(p.getPlayer2Name()))
+                    .toList();
+        }
+        
+        @Override
+        public long count() {
+            return predictions.size();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.tennis.service;
+
+import com.tennis.dto.PredictionRequest;
+import com.tennis.dto.PredictionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PredictionDeduplicationServiceTest {
+    
+    private CountingPredictionService predictionService;
+    private PredictionDeduplicationService deduplicationService;
+    
+    @BeforeEach
+    void setUp() {
+        predictionService = new CountingPredictionService();
+        deduplicationService = new PredictionDeduplicationService(predictionService,
+                new PredictionTracer(new SimpleMeterRegistry(), 1000, 0, 1), 60_000, 100, 5_000);
+    }
+    
+    @Test
+    void concurrentDuplicatesShareOneCall() throws Exception {
+        predictionService.gate = new CountDownLatch(1);
+        
+        CompletableFuture<PredictionResponse> leader = CompletableFuture.supplyAsync(
+                () -> deduplicationService.predict("client-a", null, request("Alcaraz", "Sinner")));
+        awaitTrue(() -> predictionService.calls.get() == 1);
+        
+        // Same matchup listed the other way round, from another client
+        CompletableFuture<PredictionResponse> follower = new CompletableFuture<>();
+        Thread followerThread = new Thread(() -> follower.complete(
+                deduplicationService.predict("client-b", null, request("Sinner", "Alcaraz"))));
+        followerThread.start();
+        awaitTrue(() -> followerThread.getState() == Thread.State.TIMED_WAITING);
+        
+        predictionService.gate.countDown();
+        PredictionResponse led = leader.get(5, TimeUnit.SECONDS);
+        PredictionResponse followed = follower.get(5, TimeUnit.SECONDS);
+        
+        assertEquals(1, predictionService.calls.get());
+        assertEquals(led.getId(), followed.getId());
+        assertEquals("Sinner", followed.getPlayer1Name());
+        assertEquals(led.getPlayer2WinProb(), followed.getPlayer1WinProb());
+        assertEquals(0, deduplicationService.getInFlightCount());
+    }
+    
+    @Test
+    void leaderFailureReachesFollowersAndIsNotRemembered() throws Exception {
+        predictionService.gate = new CountDownLatch(1);
+        predictionService.failure = new IllegalStateException("model down");
+        
+        CompletableFuture<PredictionResponse> leader = CompletableFuture.supplyAsync(
+                () -> deduplicationService.predict("client-a", null, request("Alcaraz", "Sinner")));
+        awaitTrue(() -> predictionService.calls.get() == 1);
+        CompletableFuture<PredictionResponse> follower = new CompletableFuture<>();
+        Thread followerThread = new Thread(() -> {
+            try {
+                follower.complete(deduplicationService.predict("client-b", null, request("Alcaraz", "Sinner")));
+            } catch (RuntimeException e) {
+                follower.completeExceptionally(e);
+            }
+        });
+        followerThread.start();
+        awaitTrue(() -> followerThread.getState() == Thread.State.TIMED_WAITING);
+        predictionService.gate.countDown();
+        
+        assertTrue(assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS))
+                .getCause() instanceof IllegalStateException);
+        assertTrue(assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS))
+                .getCause() instanceof IllegalStateException);
+        assertEquals(0, deduplicationService.getInFlightCount());
+        
+        predictionService.gate = null;
+        predictionService.failure = null;
+        deduplicationService.predict("client-a", null, request("Alcaraz", "Sinner"));
+        assertEquals(2, predictionService.calls.get());
+    }
+    
+    @Test
+    void idempotencyKeyReplaysTheStoredResponse() {
+        PredictionResponse first = deduplicationService.predict("client-a", "key-1", request("Alcaraz", "Sinner"));
+        PredictionResponse replayed = deduplicationService.predict("client-a", "key-1", request("Alcaraz", "Sinner"));
+        
+        assertEquals(1, predictionService.calls.get());
+        assertSame(first, replayed);
+    }
+    
+    @Test
+    void idempotencyKeysAreScopedToTheClient() {
+        deduplicationService.predict("client-a", "key-1", request("Alcaraz", "Sinner"));
+        deduplicationService.predict("client-b", "key-1", request("Alcaraz", "Sinner"));
+        
+        assertEquals(2, predictionService.calls.get());
+    }
+    
+    @Test
+    void reusingAKeyForAnotherMatchupIsRejected() {
+        deduplicationService.predict("client-a", "key-1", request("Alcaraz", "Sinner"));
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> deduplicationService.predict("client-a", "key-1", request("Djokovic", "Medvedev")));
+    }
+    
+    private static PredictionRequest request(String player1, String player2) {
+        PredictionRequest request = new PredictionRequest();
+        request.setPlayer1Name(player1);
+        request.setPlayer2Name(player2);
+        request.setTournament("Wimbledon");
+        request.setSurface("GRASS");
+        return request;
+    }
+    
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 5 seconds");
+            }
+            Thread.sleep(1);
+        }
+    }
+    
+    /** Answers every matchup with player 1 at 0.7, optionally holding or failing the call. */
+    private static final class CountingPredictionService extends PredictionService {
+        
+        final AtomicInteger calls = new AtomicInteger();
+        volatile CountDownLatch gate;
+        volatile RuntimeException failure;
+        
+        CountingPredictionService() {
+            super(null, null, null, null, null, null, null);
+        }
+        
+        @Override
+        public PredictionResponse predictMatch(PredictionRequest request) {
+            int call = calls.incrementAndGet();
+            CountDownLatch latch = gate;
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return PredictionResponse.builder()
+                    .id((long) call)
+                    .player1Name(request.getPlayer1Name())
+                    .player2Name(request.getPlayer2Name())
+                    .player1WinProb(0.7)
+                    .player2WinProb(0.3)
+                    .predictedWinner(request.getPlayer1Name())
+                    .modelVersion("test")
+                    .build();
+        }
+    }
+}
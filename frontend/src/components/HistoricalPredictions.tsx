@@ -12,6 +12,7 @@ import {
   Divider
 } from '@mui/material';
 import { api } from '@/services/api';
+import { applyFeedEvent } from '@/services/predictionFeed';
 import type { HistoricalMatch } from '@/types/prediction';
 
 const HistoricalPredictions: React.FC = () => {
@@ -21,6 +22,13 @@ const HistoricalPredictions: React.FC = () => {
 
   useEffect(() => {
     fetchPredictions();
+    return api.subscribeToPredictionFeed(event => {
+      if (event.type === 'resync') {
+        fetchPredictions();
+      } else {
+        setPredictions(prev => applyFeedEvent(prev, event, 10));
+      }
+    });
   }, []);
 
   const fetchPredictions = async () => {
@@ -22,6 +22,7 @@ import CancelIcon from '@mui/icons-material/Cancel';
 import TrendingUpIcon from '@mui/icons-material/TrendingUp';
 import EqualizerIcon from '@mui/icons-material/Equalizer';
 import { api } from '@/services/api';
+import { applyFeedEvent } from '@/services/predictionFeed';
 import type { HistoricalMatch } from '@/types/prediction';
 
 const HistoryPage: React.FC = () => {
@@ -31,6 +32,13 @@ const HistoryPage: React.FC = () => {
 
   useEffect(() => {
     fetchData();
+    return api.subscribeToPredictionFeed(event => {
+      if (event.type === 'resync') {
+        fetchData();
+      } else {
+        setPredictions(prev => applyFeedEvent(prev, event, 50));
+      }
+    });
   }, []);
 
   const fetchData = async () => {
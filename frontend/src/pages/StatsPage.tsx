@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Container, Grid, Paper, Typography, Box, Card, CardContent } from '@mui/material';
 import { api } from '@/services/api';
+import { applyFeedEvent } from '@/services/predictionFeed';
 import type { HistoricalMatch } from '@/types/prediction';
 
 const StatsPage: React.FC = () => {
@@ -19,6 +20,13 @@ const StatsPage: React.FC = () => {
       }
     };
     fetchData();
+    return api.subscribeToPredictionFeed(event => {
+      if (event.type === 'resync') {
+        fetchData();
+      } else {
+        setPredictions(prev => applyFeedEvent(prev, event, 100));
+      }
+    });
   }, []);
 
   const totalPredictions = predictions.length;
@@ -3,6 +3,7 @@ import type {
   PredictionRequest,
   PredictionResponse,
   HistoricalMatch,
+  PredictionFeedEvent,
   PlayerStats,
   Tournament
 } from '@/types/prediction';
@@ -11,6 +12,9 @@ const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080
 
 class TennisPredictorApi {
   private client: AxiosInstance;
+  private feedSource?: EventSource;
+  private feedListeners = new Set<(event: PredictionFeedEvent) => void>();
+  private feedCloseTimer?: ReturnType<typeof setTimeout>;
 
   constructor() {
     this.client = axios.create({
@@ -55,6 +59,48 @@ class TennisPredictorApi {
     }
   }
 
+  // Subscribes to the server-sent prediction feed. All subscribers on the page share one
+  // EventSource, which resumes with Last-Event-ID on reconnect and closes with the last subscriber.
+  subscribeToPredictionFeed(onEvent: (event: PredictionFeedEvent) => void): () => void {
+    this.feedListeners.add(onEvent);
+    if (this.feedCloseTimer !== undefined) {
+      clearTimeout(this.feedCloseTimer);
+      this.feedCloseTimer = undefined;
+    }
+    if (!this.feedSource) {
+      this.feedSource = this.openPredictionFeed();
+    }
+
+    return () => {
+      this.feedListeners.delete(onEvent);
+      if (this.feedListeners.size === 0 && this.feedCloseTimer === undefined) {
+        // Deferred so a remounting component reuses the connection instead of reopening it
+        this.feedCloseTimer = setTimeout(() => {
+          this.feedCloseTimer = undefined;
+          if (this.feedListeners.size === 0) {
+            this.feedSource?.close();
+            this.feedSource = undefined;
+          }
+        }, 1000);
+      }
+    };
+  }
+
+  private openPredictionFeed(): EventSource {
+    const source = new EventSource(`${API_BASE_URL}/predictions/stream`);
+    const dispatch = (event: PredictionFeedEvent) => {
+      this.feedListeners.forEach(listener => listener(event));
+    };
+    const forward = (type: 'created' | 'settled') => (message: MessageEvent) => {
+      dispatch({ type, prediction: JSON.parse(message.data) as HistoricalMatch });
+    };
+
+    source.addEventListener('created', forward('created'));
+    source.addEventListener('settled', forward('settled'));
+    source.addEventListener('resync', () => dispatch({ type: 'resync' }));
+    return source;
+  }
+
   async searchPlayers(query: string): Promise<any[]> {
     try {
       const response: AxiosResponse<any[]> = await this.client.get(
@@ -0,0 +1,27 @@
+import type { HistoricalMatch, PredictionFeedEvent } from '@/types/prediction';
+
+// 将推送事件合并到已加载的预测列表中（按 id 去重，新预测置顶）
+export const applyFeedEvent = (
+  predictions: HistoricalMatch[],
+  event: PredictionFeedEvent,
+  limit: number
+): HistoricalMatch[] => {
+  if (event.type === 'resync') {
+    return predictions;
+  }
+
+  const incoming = event.prediction;
+  const index = predictions.findIndex(p => p.id === incoming.id);
+
+  if (index >= 0) {
+    const next = [...predictions];
+    next[index] = { ...next[index], ...incoming };
+    return next;
+  }
+
+  if (event.type === 'settled') {
+    return predictions;
+  }
+
+  return [incoming, ...predictions].slice(0, limit);
+};
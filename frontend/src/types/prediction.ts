@@ -64,9 +64,14 @@ export interface HistoricalMatch {
   tournament: string;
   surface: string;
   actual_winner?: string;
+  correct?: boolean;
   created_at: string;
 }
 
+export type PredictionFeedEvent =
+  | { type: 'created' | 'settled'; prediction: HistoricalMatch }
+  | { type: 'resync' };
+
 export interface PlayerStats {
   id: number;
   name: string;